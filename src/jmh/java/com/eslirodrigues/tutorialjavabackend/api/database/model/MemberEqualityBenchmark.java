@@ -0,0 +1,83 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.model;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberEqualityBenchmark {
+
+    private Member member;
+    private Member sameMember;
+    private Member proxy;
+
+    @Setup
+    public void setUp() {
+        member = new Member(1L, "esli", 30, "esli", List.of("Lucas", "Ana"), null);
+        sameMember = new Member(1L, "esli", 30, "esli", List.of("Lucas", "Ana"), null);
+        proxy = new MemberProxy(1L);
+    }
+
+    @Benchmark
+    public boolean equalsEntity() {
+        return member.equals(sameMember);
+    }
+
+    @Benchmark
+    public boolean equalsProxy() {
+        return member.equals(proxy);
+    }
+
+    @Benchmark
+    public boolean proxyEqualsEntity() {
+        return proxy.equals(member);
+    }
+
+    @Benchmark
+    public int hashCodeEntity() {
+        return member.hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeProxy() {
+        return proxy.hashCode();
+    }
+
+    /**
+     * Stands in for the bytecode subclass Hibernate generates for lazy {@link Member} references.
+     */
+    static class MemberProxy extends Member implements HibernateProxy {
+
+        private final transient LazyInitializer lazyInitializer = (LazyInitializer) Proxy.newProxyInstance(
+                LazyInitializer.class.getClassLoader(),
+                new Class<?>[]{LazyInitializer.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getPersistentClass" -> Member.class;
+                    case "getIdentifier" -> getId();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        MemberProxy(Long id) {
+            super(id, null, null, null, null, null);
+        }
+
+        @Override
+        public Object writeReplace() {
+            return this;
+        }
+
+        @Override
+        public LazyInitializer getHibernateLazyInitializer() {
+            return lazyInitializer;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberJsonBenchmark {
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Member member;
+    private String json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(Member.class);
+        reader = objectMapper.readerFor(Member.class);
+        member = new Member(42L, "alice", 25, "esli", List.of("Lucas", "Ana", "Eva"),
+                LocalDateTime.of(2024, 12, 31, 23, 59, 59));
+        json = writer.writeValueAsString(member);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return writer.writeValueAsString(member);
+    }
+
+    @Benchmark
+    public Member deserialize() throws JsonProcessingException {
+        return reader.readValue(json);
+    }
+}
@@ -0,0 +1,96 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes and decodes a page of {@link MemberResponse}s the way {@code GET /members} returns it,
+ * once per wire format, with and without gzip. The encoded size of each combination is printed
+ * when the trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<MemberResponse> page;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> builder.build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        writer = objectMapper.writerFor(new TypeReference<List<MemberResponse>>() {
+        });
+        reader = objectMapper.readerFor(new TypeReference<List<MemberResponse>>() {
+        });
+
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(new MemberResponse((long) i, "member-" + i, 20 + i % 50, "esli",
+                    List.of("Lucas", "Ana"), i % 10 == 0 ? LocalDateTime.of(2024, 12, 31, 23, 59, 59) : null,
+                    (long) i));
+        }
+        encoded = serialize();
+        System.out.printf("%n%s gzip=%s pageSize=%d: %d bytes%n", format, gzip, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        if (!gzip) {
+            return writer.writeValueAsBytes(page);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            writer.writeValue(out, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public List<MemberResponse> deserialize() throws IOException {
+        if (!gzip) {
+            return reader.readValue(encoded);
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(encoded))) {
+            return reader.readValue(in);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachingAuthenticationProviderBenchmark {
+
+    private DaoAuthenticationProvider verifier;
+    private CachingAuthenticationProvider cachingProvider;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        ObservableInMemoryUserDetailsManager users = new ObservableInMemoryUserDetailsManager(User.withUsername("esli")
+                .password(passwordEncoder.encode("secret"))
+                .roles("OWNER")
+                .build());
+        verifier = new DaoAuthenticationProvider(passwordEncoder);
+        verifier.setUserDetailsService(users);
+        cachingProvider = new CachingAuthenticationProvider(verifier, Duration.ofMinutes(5), 10_000);
+        cachingProvider.authenticate(token());
+    }
+
+    @Benchmark
+    public Authentication bcryptVerification() {
+        return verifier.authenticate(token());
+    }
+
+    @Benchmark
+    public Authentication cachedVerification() {
+        return cachingProvider.authenticate(token());
+    }
+
+    private static UsernamePasswordAuthenticationToken token() {
+        return UsernamePasswordAuthenticationToken.unauthenticated("esli", "secret");
+    }
+}
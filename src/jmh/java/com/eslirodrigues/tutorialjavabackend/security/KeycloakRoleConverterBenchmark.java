@@ -0,0 +1,59 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeycloakRoleConverterBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int roleCount;
+
+    private final KeycloakRoleConverter converter = new KeycloakRoleConverter();
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        List<String> roles = new ArrayList<>(List.of("OWNER", "offline_access", "uma_authorization"));
+        for (int i = roles.size(); i < roleCount; i++) {
+            roles.add("app-role-" + i);
+        }
+        Instant issuedAt = Instant.now();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .header("typ", "JWT")
+                .header("kid", "Zx3n8Vv1RkqX")
+                .issuer("http://keycloak:8080/realms/tutorial-java-backend")
+                .subject("0b6f2c1e-5a7d-4c11-9e5c-3f6a9d2b7e10")
+                .audience(List.of("account"))
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plusSeconds(300))
+                .claim("azp", "tutorial-java-frontend")
+                .claim("typ", "Bearer")
+                .claim("scope", "openid profile email")
+                .claim("preferred_username", "esli")
+                .claim("email_verified", true)
+                .claim("realm_access", Map.of("roles", roles.subList(0, roleCount)))
+                .claim("resource_access", Map.of("account", Map.of("roles",
+                        List.of("manage-account", "manage-account-links", "view-profile"))))
+                .build();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> convert() {
+        return converter.convert(jwt);
+    }
+}
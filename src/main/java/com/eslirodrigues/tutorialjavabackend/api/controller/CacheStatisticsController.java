@@ -0,0 +1,54 @@
+package com.eslirodrigues.tutorialjavabackend.api.controller;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.dto.CacheRegionStatistics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/cache")
+@Profile("cache")
+public class CacheStatisticsController {
+
+    private static final Set<String> REGIONS = Set.of(Member.CACHE_REGION, Member.SONS_CACHE_REGION);
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @GetMapping("/statistics")
+    public ResponseEntity<List<CacheRegionStatistics>> findCacheStatistics() throws JMException {
+        ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,*");
+        List<CacheRegionStatistics> statistics = mBeanServer.queryNames(pattern, null).stream()
+                .filter(name -> REGIONS.contains(name.getKeyProperty("Cache")))
+                .map(this::readStatistics)
+                .sorted(Comparator.comparing(CacheRegionStatistics::region))
+                .toList();
+        return ResponseEntity.ok(statistics);
+    }
+
+    private CacheRegionStatistics readStatistics(ObjectName name) {
+        try {
+            return new CacheRegionStatistics(
+                    name.getKeyProperty("Cache"),
+                    (Long) mBeanServer.getAttribute(name, "CacheHits"),
+                    (Long) mBeanServer.getAttribute(name, "CacheMisses"),
+                    (Long) mBeanServer.getAttribute(name, "CachePuts"),
+                    (Long) mBeanServer.getAttribute(name, "CacheRemovals"),
+                    (Long) mBeanServer.getAttribute(name, "CacheEvictions"),
+                    (Float) mBeanServer.getAttribute(name, "CacheHitPercentage")
+            );
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to read cache statistics for " + name, e);
+        }
+    }
+}
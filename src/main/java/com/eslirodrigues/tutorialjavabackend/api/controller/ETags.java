@@ -0,0 +1,93 @@
+package com.eslirodrigues.tutorialjavabackend.api.controller;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.OptionalLong;
+
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Weak, because the tag identifies the member's version rather than one encoding of it: JSON,
+     * CBOR, Smile and gzipped bodies share it.
+     */
+    static String of(long version) {
+        return "W/" + strong(version);
+    }
+
+    /**
+     * For bodiless write responses: the version itself, usable as the next {@code If-Match}, which
+     * only accepts strong tags.
+     */
+    static String strong(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Weak, because the tag identifies the rows rather than one encoding of them: JSON, CBOR, Smile
+     * and gzipped bodies of the same page share it. Tomcat also refuses to compress a response that
+     * carries a strong ETag.
+     */
+    static String of(List<MemberRow> rows) {
+        MessageDigest digest = sha256();
+        for (MemberRow row : rows) {
+            digest.update((row.id() + ":" + row.version() + ";").getBytes(StandardCharsets.UTF_8));
+        }
+        return "W/\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeakPrefix(tag).equals(stripWeakPrefix(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isConditional(String ifMatch) {
+        return ifMatch != null && !ifMatch.isBlank() && !ifMatch.trim().equals("*");
+    }
+
+    /**
+     * {@code If-Match} uses strong comparison, so a weak tag never matches.
+     */
+    static boolean isWeak(String ifMatch) {
+        return ifMatch.trim().startsWith("W/");
+    }
+
+    static OptionalLong parseVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(tag.substring(1, tag.length() - 1)));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
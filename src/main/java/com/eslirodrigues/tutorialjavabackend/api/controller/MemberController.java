@@ -1,40 +1,111 @@
 package com.eslirodrigues.tutorialjavabackend.api.controller;
 
 import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
 import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberRepository;
+import com.eslirodrigues.tutorialjavabackend.api.dto.BulkDeleteResponse;
+import com.eslirodrigues.tutorialjavabackend.api.dto.CursorPage;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberBatchOperation;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberBatchResult;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberCount;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberCursor;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberPatch;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberResponse;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberSearch;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberStats;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberChangeFeed;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberCommandService;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberExportService;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberImportService;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberIngestQueue;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberQueryService;
+import com.eslirodrigues.tutorialjavabackend.config.StatementBudget;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.security.Principal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/members")
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final int MAX_BULK_DELETE_IDS = 1000;
+    private static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
     private final MemberRepository memberRepository;
+    private final MemberQueryService memberQueryService;
+    private final MemberCommandService memberCommandService;
+    private final MemberExportService memberExportService;
+    private final MemberChangeFeed memberChangeFeed;
+    private final MemberIngestQueue memberIngestQueue;
+    private final MemberImportService memberImportService;
 
-    private Member findMember(Long id, Principal principal) {
-        return memberRepository.findByIdAndOwner(id, principal.getName());
-    }
+    @Value("${app.members.batch.max-operations:500}")
+    private int maxBatchOperations;
 
     @GetMapping("/{id}")
-    public ResponseEntity<Member> findMemberById(@PathVariable Long id, Principal principal) {
-        Member member = findMember(id, principal);
-        return member != null ? ResponseEntity.ok(member) : ResponseEntity.notFound().build();
+    @StatementBudget(2)
+    public ResponseEntity<MemberResponse> findMemberById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Principal principal
+    ) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = memberQueryService.findVersionByIdAndOwner(id, principal.getName());
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = ETags.of(version.get());
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        return memberQueryService.findByIdAndOwner(id, principal.getName())
+                .map(member -> ResponseEntity.ok().eTag(ETags.of(member.version())).body(member))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    public ResponseEntity<List<Member>> findAllMembersByOwner(Pageable pageable, Principal principal) {
-        Page<Member> page = memberRepository.findByOwner(
+    @StatementBudget(2)
+    public ResponseEntity<List<MemberResponse>> findAllMembersByOwner(
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Principal principal
+    ) {
+        Slice<MemberRow> slice = memberQueryService.findRowsByOwner(
                 principal.getName(),
                 PageRequest.of(
                         pageable.getPageNumber(),
@@ -42,11 +113,164 @@ public class MemberController {
                         pageable.getSortOr(Sort.by(Sort.Direction.ASC, "age"))
                 )
         );
-        return ResponseEntity.ok(page.getContent());
+        List<MemberRow> rows = slice.getContent();
+        String etag = ETags.of(rows);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        if (slice.hasNext()) {
+            headers.add(HttpHeaders.LINK, nextPageLink(slice.nextPageable()));
+        }
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+        return ResponseEntity.ok().headers(headers).body(memberQueryService.withSons(rows));
+    }
+
+    private static String nextPageLink(Pageable next) {
+        String uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("page", next.getPageNumber())
+                .replaceQueryParam("size", next.getPageSize())
+                .build()
+                .toUriString();
+        return "<" + uri + ">; rel=\"next\"";
+    }
+
+    @GetMapping("/count")
+    @StatementBudget(1)
+    public ResponseEntity<MemberCount> countMembersByOwner(Principal principal) {
+        return ResponseEntity.ok(memberQueryService.countByOwner(principal.getName()));
+    }
+
+    @GetMapping("/stats")
+    @StatementBudget(2)
+    public ResponseEntity<MemberStats> findMemberStatsByOwner(Principal principal) {
+        return ResponseEntity.ok(memberQueryService.statsByOwner(principal.getName()));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @StatementBudget(0)
+    public ResponseEntity<SseEmitter> streamMemberChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) String since,
+            Principal principal
+    ) {
+        String token = lastEventId != null ? lastEventId : since;
+        Long after = null;
+        if (token != null && !token.isBlank()) {
+            try {
+                after = Long.parseLong(token.trim());
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .header("X-Accel-Buffering", "no")
+                .body(memberChangeFeed.subscribe(principal.getName(), after));
+    }
+
+    @GetMapping(params = "cursor")
+    @StatementBudget(3)
+    public ResponseEntity<CursorPage<MemberResponse>> findMembersByOwnerAfterCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Principal principal
+    ) {
+        MemberCursor after = null;
+        if (!cursor.isBlank()) {
+            try {
+                after = MemberCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        return ResponseEntity.ok(memberQueryService.findByOwnerAfter(principal.getName(), after, pageSize));
+    }
+
+    @GetMapping("/search")
+    @StatementBudget(2)
+    public ResponseEntity<CursorPage<MemberResponse>> searchMembers(
+            MemberSearch search,
+            @RequestParam(defaultValue = "") String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Principal principal
+    ) {
+        if (!search.isValid()) {
+            return ResponseEntity.badRequest().build();
+        }
+        MemberCursor after = null;
+        if (!cursor.isBlank()) {
+            try {
+                after = MemberCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        return ResponseEntity.ok(memberQueryService.search(principal.getName(), search, after, pageSize));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMembersByOwner(Principal principal) {
+        String owner = principal.getName();
+        StreamingResponseBody body = out -> memberExportService.exportByOwner(owner, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importMembers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestParam(defaultValue = "0") long offset,
+            HttpServletRequest request,
+            Principal principal
+    ) throws IOException {
+        if (offset < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        MemberImportService.Format format = TEXT_CSV.isCompatibleWith(contentType)
+                ? MemberImportService.Format.CSV
+                : MemberImportService.Format.NDJSON;
+        return importResponse(principal.getName(), format, request.getInputStream(), offset);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importMembersFromUpload(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(defaultValue = "0") long offset,
+            Principal principal
+    ) throws IOException {
+        if (offset < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean csv = (file.getContentType() != null && TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(file.getContentType())))
+                || (file.getOriginalFilename() != null && file.getOriginalFilename().toLowerCase(Locale.ROOT).endsWith(".csv"));
+        MemberImportService.Format format = csv ? MemberImportService.Format.CSV : MemberImportService.Format.NDJSON;
+        return importResponse(principal.getName(), format, file.getInputStream(), offset);
+    }
+
+    private ResponseEntity<StreamingResponseBody> importResponse(
+            String owner,
+            MemberImportService.Format format,
+            InputStream in,
+            long offset
+    ) {
+        StreamingResponseBody body = out -> {
+            try (in) {
+                memberImportService.importMembers(owner, format, in, offset, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping
-    public ResponseEntity<Void> createMember(
+    public CompletableFuture<ResponseEntity<Void>> createMember(
             @RequestBody Member newMemberRequest,
             UriComponentsBuilder ucb,
             Principal principal
@@ -59,8 +283,22 @@ public class MemberController {
                 newMemberRequest.getSons(),
                 newMemberRequest.getDeletedDate()
         );
-        Member savedMember = memberRepository.save(memberWithName);
+        if (!memberIngestQueue.isEnabled()) {
+            return CompletableFuture.completedFuture(created(ucb, memberCommandService.create(memberWithName)));
+        }
+        return memberIngestQueue.submit(memberWithName)
+                .thenApply(savedMember -> created(ucb, savedMember))
+                .exceptionally(e -> {
+                    if (!(e.getCause() instanceof RejectedExecutionException)) {
+                        throw (CompletionException) e;
+                    }
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1")
+                            .build();
+                });
+    }
 
+    private static ResponseEntity<Void> created(UriComponentsBuilder ucb, Member savedMember) {
         URI location = ucb.path("/members/{id}").buildAndExpand(savedMember.getId()).toUri();
         return ResponseEntity.created(location).build();
     }
@@ -69,30 +307,122 @@ public class MemberController {
     public ResponseEntity<Void> updateMember(
             @PathVariable Long id,
             @RequestBody Member memberUpdate,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Principal principal
     ) {
-        Member member = findMember(id, principal);
-        if (member != null) {
-            Member updatedMember = new Member(
-                    id,
-                    memberUpdate.getName(),
-                    memberUpdate.getAge(),
-                    principal.getName(),
-                    memberUpdate.getSons(),
-                    memberUpdate.getDeletedDate()
-            );
-            memberRepository.save(updatedMember);
+        if (ETags.isConditional(ifMatch)) {
+            if (ETags.isWeak(ifMatch)) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            OptionalLong version = ETags.parseVersion(ifMatch);
+            if (version.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            int updated = memberCommandService.updateIfVersion(
+                    id, principal.getName(), version.getAsLong(), memberUpdate);
+            if (updated > 0) {
+                return ResponseEntity.noContent().eTag(ETags.strong(version.getAsLong() + 1)).build();
+            }
+            return memberRepository.existsByIdAndOwner(id, principal.getName())
+                    ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()
+                    : ResponseEntity.notFound().build();
+        }
+
+        if (memberCommandService.replace(id, principal.getName(), memberUpdate)) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
     }
 
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON_VALUE)
+    @StatementBudget(7)
+    public ResponseEntity<Void> patchMember(
+            @PathVariable Long id,
+            @RequestBody JsonNode mergePatch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Principal principal
+    ) {
+        MemberPatch patch;
+        try {
+            patch = MemberPatch.from(mergePatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Long version = null;
+        if (ETags.isConditional(ifMatch)) {
+            if (ETags.isWeak(ifMatch)) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            OptionalLong parsed = ETags.parseVersion(ifMatch);
+            if (parsed.isEmpty()) {
+                return ResponseEntity.badRequest().build();
+            }
+            version = parsed.getAsLong();
+        }
+
+        if (patch.isEmpty() && version == null) {
+            return memberRepository.existsByIdAndOwner(id, principal.getName())
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        }
+
+        int updated = memberCommandService.patch(id, principal.getName(), version, patch);
+        if (updated > 0) {
+            return version != null
+                    ? ResponseEntity.noContent().eTag(ETags.strong(version + 1)).build()
+                    : ResponseEntity.noContent().build();
+        }
+        if (version != null && memberRepository.existsByIdAndOwner(id, principal.getName())) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/{id}")
+    @StatementBudget(4)
     public ResponseEntity<Void> deleteMember(@PathVariable Long id, Principal principal) {
-        if (memberRepository.existsByIdAndOwner(id, principal.getName())) {
-            memberRepository.deleteById(id);
+        if (memberCommandService.delete(id, principal.getName())) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
     }
+
+    @PostMapping("/batch")
+    @StatementBudget(12)
+    public ResponseEntity<List<MemberBatchResult>> applyMemberBatch(
+            @RequestBody List<MemberBatchOperation> operations,
+            Principal principal
+    ) {
+        if (operations.isEmpty() || operations.size() > maxBatchOperations
+                || !operations.stream().allMatch(MemberBatchOperation::isValid)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> ids = operations.stream().map(MemberBatchOperation::id).filter(Objects::nonNull).toList();
+        if (new HashSet<>(ids).size() != ids.size()) {
+            return ResponseEntity.badRequest().build();
+        }
+        String owner = principal.getName();
+        List<MemberBatchOperation> owned = operations.stream()
+                .map(operation -> operation.member() == null ? operation : operation.withMember(new Member(
+                        operation.id(),
+                        operation.member().getName(),
+                        operation.member().getAge(),
+                        owner,
+                        operation.member().getSons(),
+                        operation.member().getDeletedDate()
+                )))
+                .toList();
+        return ResponseEntity.ok(memberCommandService.applyBatch(owner, owned));
+    }
+
+    @DeleteMapping(params = "ids")
+    @StatementBudget(5)
+    public ResponseEntity<BulkDeleteResponse> deleteMembers(@RequestParam Set<Long> ids, Principal principal) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_DELETE_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        int deleted = memberCommandService.deleteAll(ids, principal.getName());
+        return ResponseEntity.ok(new BulkDeleteResponse(ids.size(), deleted));
+    }
 }
@@ -0,0 +1,52 @@
+package com.eslirodrigues.tutorialjavabackend.api.controller;
+
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberResponse;
+import com.eslirodrigues.tutorialjavabackend.api.service.ReactiveMemberQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.util.List;
+
+@RestController
+@RequestMapping("/reactive/members")
+@RequiredArgsConstructor
+public class ReactiveMemberController {
+
+    private static final int MAX_PAGE_SIZE = 2000;
+
+    private final ReactiveMemberQueryService reactiveMemberQueryService;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<MemberResponse>> findMemberById(@PathVariable Long id, Principal principal) {
+        return reactiveMemberQueryService.findByIdAndOwner(id, principal.getName())
+                .map(member -> ResponseEntity.ok().eTag(ETags.of(member.version())).body(member))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<MemberResponse>> findAllMembersByOwner(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Principal principal
+    ) {
+        return streamAllMembersByOwner(page, size, principal).collectList();
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MemberResponse> streamAllMembersByOwner(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Principal principal
+    ) {
+        return reactiveMemberQueryService.findByOwner(
+                principal.getName(),
+                Math.max(page, 0),
+                Math.clamp(size, 1, MAX_PAGE_SIZE)
+        );
+    }
+}
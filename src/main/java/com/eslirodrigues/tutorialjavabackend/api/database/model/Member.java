@@ -1,8 +1,13 @@
 package com.eslirodrigues.tutorialjavabackend.api.database.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.time.LocalDateTime;
@@ -10,6 +15,9 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Member.CACHE_REGION)
+@SQLRestriction("deleted_date is null or deleted_date > localtimestamp")
 @Getter
 @Setter
 @ToString
@@ -17,8 +25,13 @@ import java.util.Objects;
 @AllArgsConstructor
 public class Member {
 
+    public static final String CACHE_REGION = "member";
+    public static final String SONS_CACHE_REGION = "member.sons";
+    public static final String ID_SEQUENCE = "member_seq";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
     private Long id;
 
     private String name;
@@ -28,11 +41,26 @@ public class Member {
     private String owner;
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Member.SONS_CACHE_REGION)
     private List<String> sons;
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime deletedDate;
 
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    public Member(Long id, String name, Integer age, String owner, List<String> sons, LocalDateTime deletedDate) {
+        this(id, name, age, owner, sons, deletedDate, null);
+    }
+
+    public boolean isDeletedAt(LocalDateTime instant) {
+        return deletedDate != null && !deletedDate.isAfter(instant);
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,48 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "member_owner_histogram")
+@IdClass(MemberOwnerHistogram.Key.class)
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberOwnerHistogram {
+
+    public static final int AGE_BUCKET_WIDTH = 10;
+
+    public enum Dimension { AGE, SONS }
+
+    @Id
+    private String owner;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Dimension dimension;
+
+    @Id
+    private Integer bucket;
+
+    @Column(nullable = false)
+    private long members;
+
+    public static int ageBucket(int age) {
+        return Math.floorDiv(age, AGE_BUCKET_WIDTH) * AGE_BUCKET_WIDTH;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String owner;
+        private Dimension dimension;
+        private Integer bucket;
+    }
+}
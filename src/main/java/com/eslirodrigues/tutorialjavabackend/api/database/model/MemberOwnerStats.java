@@ -0,0 +1,33 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+@Entity
+@Table(name = "member_owner_stats")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberOwnerStats {
+
+    @Id
+    private String owner;
+
+    @Column(nullable = false)
+    private long members;
+
+    @Column(nullable = false)
+    private long ageSum;
+
+    @Column(nullable = false)
+    private long sonsSum;
+
+    public static MemberOwnerStats empty(String owner) {
+        return new MemberOwnerStats(owner, 0, 0, 0);
+    }
+}
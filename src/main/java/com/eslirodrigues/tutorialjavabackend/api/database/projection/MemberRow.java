@@ -0,0 +1,13 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.projection;
+
+import java.time.LocalDateTime;
+
+public record MemberRow(
+        Long id,
+        String name,
+        Integer age,
+        String owner,
+        LocalDateTime deletedDate,
+        Long version
+) {
+}
@@ -0,0 +1,4 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.projection;
+
+public record MemberSonJoinRow(MemberRow member, String son) {
+}
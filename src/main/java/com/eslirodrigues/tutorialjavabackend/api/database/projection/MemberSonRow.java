@@ -0,0 +1,4 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.projection;
+
+public record MemberSonRow(Long memberId, String son) {
+}
@@ -0,0 +1,10 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.projection;
+
+import java.time.LocalDateTime;
+
+public record MemberState(Long id, Integer age, LocalDateTime deletedDate, int sons) {
+
+    public boolean isCounted() {
+        return deletedDate == null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.repository;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerHistogram;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface MemberOwnerHistogramRepository
+        extends JpaRepository<MemberOwnerHistogram, MemberOwnerHistogram.Key> {
+
+    List<MemberOwnerHistogram> findByOwnerAndMembersGreaterThanOrderByDimensionAscBucketAsc(String owner, long members);
+
+}
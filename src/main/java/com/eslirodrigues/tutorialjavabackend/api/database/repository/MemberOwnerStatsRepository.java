@@ -0,0 +1,8 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.repository;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MemberOwnerStatsRepository
+        extends JpaRepository<MemberOwnerStats, String>, MemberOwnerStatsRepositoryCustom {
+}
@@ -0,0 +1,7 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.repository;
+
+public interface MemberOwnerStatsRepositoryCustom {
+
+    void apply(String owner, MemberStatsDelta delta);
+
+}
@@ -0,0 +1,103 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.repository;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerHistogram;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+class MemberOwnerStatsRepositoryImpl implements MemberOwnerStatsRepositoryCustom {
+
+    private static final String POSTGRES_TOTALS_UPSERT = """
+            insert into member_owner_stats (owner, members, age_sum, sons_sum)
+            values (:owner, :members, :ageSum, :sonsSum)
+            on conflict (owner) do update set
+                members = member_owner_stats.members + excluded.members,
+                age_sum = member_owner_stats.age_sum + excluded.age_sum,
+                sons_sum = member_owner_stats.sons_sum + excluded.sons_sum
+            """;
+
+    private static final String STANDARD_TOTALS_MERGE = """
+            merge into member_owner_stats t
+            using (select cast(:owner as varchar(255)) as owner,
+                          cast(:members as bigint) as members,
+                          cast(:ageSum as bigint) as age_sum,
+                          cast(:sonsSum as bigint) as sons_sum) s
+            on t.owner = s.owner
+            when matched then update set
+                members = t.members + s.members,
+                age_sum = t.age_sum + s.age_sum,
+                sons_sum = t.sons_sum + s.sons_sum
+            when not matched then insert (owner, members, age_sum, sons_sum)
+                values (s.owner, s.members, s.age_sum, s.sons_sum)
+            """;
+
+    private static final String POSTGRES_HISTOGRAM_UPSERT = """
+            insert into member_owner_histogram (owner, dimension, bucket, members) values (?, ?, ?, ?)
+            on conflict (owner, dimension, bucket) do update set
+                members = member_owner_histogram.members + excluded.members
+            """;
+
+    private static final String STANDARD_HISTOGRAM_MERGE = """
+            merge into member_owner_histogram t
+            using (select cast(? as varchar(255)) as owner,
+                          cast(? as varchar(16)) as dimension,
+                          cast(? as integer) as bucket,
+                          cast(? as bigint) as members) s
+            on t.owner = s.owner and t.dimension = s.dimension and t.bucket = s.bucket
+            when matched then update set members = t.members + s.members
+            when not matched then insert (owner, dimension, bucket, members)
+                values (s.owner, s.dimension, s.bucket, s.members)
+            """;
+
+    private final EntityManager entityManager;
+    private final String totalsUpsert;
+    private final String histogramUpsert;
+
+    MemberOwnerStatsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        boolean postgres = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+        this.totalsUpsert = postgres ? POSTGRES_TOTALS_UPSERT : STANDARD_TOTALS_MERGE;
+        this.histogramUpsert = postgres ? POSTGRES_HISTOGRAM_UPSERT : STANDARD_HISTOGRAM_MERGE;
+    }
+
+    @Override
+    @Transactional
+    public void apply(String owner, MemberStatsDelta delta) {
+        if (!delta.isTotalsEmpty()) {
+            entityManager.createNativeQuery(totalsUpsert)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedQuerySpace("member_owner_stats")
+                    .setParameter("owner", owner)
+                    .setParameter("members", delta.getMembers())
+                    .setParameter("ageSum", delta.getAgeSum())
+                    .setParameter("sonsSum", delta.getSonsSum())
+                    .executeUpdate();
+        }
+
+        List<MemberOwnerHistogram> buckets = delta.histogram(owner);
+        if (buckets.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(histogramUpsert)) {
+                for (MemberOwnerHistogram bucket : buckets) {
+                    statement.setString(1, bucket.getOwner());
+                    statement.setString(2, bucket.getDimension().name());
+                    statement.setInt(3, bucket.getBucket());
+                    statement.setLong(4, bucket.getMembers());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
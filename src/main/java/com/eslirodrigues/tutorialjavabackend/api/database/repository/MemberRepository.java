@@ -1,16 +1,133 @@
 package com.eslirodrigues.tutorialjavabackend.api.database.repository;
 
 import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
-import org.springframework.data.domain.Page;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberSonRow;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface MemberRepository extends JpaRepository<Member, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom {
+
+    int EXPORT_FETCH_SIZE = 500;
 
     Member findByIdAndOwner(Long id, String owner);
 
     boolean existsByIdAndOwner(Long id, String owner);
 
-    Page<Member> findByOwner(String owner, Pageable pageable);
+    @Query("select m.version from Member m where m.id = :id and m.owner = :owner")
+    Optional<Long> findVersionByIdAndOwner(Long id, String owner);
+
+    @Query("""
+            select new com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow(
+                m.id, m.name, m.age, m.owner, m.deletedDate, m.version)
+            from Member m
+            where m.id = :id and m.owner = :owner
+            """)
+    Optional<MemberRow> findRowByIdAndOwner(Long id, String owner);
+
+    @Query("""
+            select new com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow(
+                m.id, m.name, m.age, m.owner, m.deletedDate, m.version)
+            from Member m
+            where m.owner = :owner
+            """)
+    Slice<MemberRow> findRowsByOwner(String owner, Pageable pageable);
+
+    @Query("""
+            select new com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow(
+                m.id, m.name, m.age, m.owner, m.deletedDate, m.version)
+            from Member m
+            where m.owner = :owner
+            order by m.age asc nulls last, m.id asc
+            """)
+    List<MemberRow> findRowsByOwnerFirst(String owner, Limit limit);
+
+    @Query("""
+            select new com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow(
+                m.id, m.name, m.age, m.owner, m.deletedDate, m.version)
+            from Member m
+            where m.owner = :owner
+              and (m.age > :age or (m.age = :age and m.id > :id))
+            order by m.age asc, m.id asc
+            """)
+    List<MemberRow> findRowsByOwnerAfter(String owner, Integer age, Long id, Limit limit);
+
+    @Query("""
+            select new com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow(
+                m.id, m.name, m.age, m.owner, m.deletedDate, m.version)
+            from Member m
+            where m.owner = :owner
+              and m.age is null and m.id > :id
+            order by m.id asc
+            """)
+    List<MemberRow> findRowsByOwnerWithoutAgeAfter(String owner, Long id, Limit limit);
+
+    @Query("""
+            select new com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberSonRow(m.id, s)
+            from Member m join m.sons s
+            where m.id in :memberIds
+            """)
+    List<MemberSonRow> findSonsByMemberIdIn(Collection<Long> memberIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("""
+            select new com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow(
+                m.id, m.name, m.age, m.owner, m.deletedDate, m.version)
+            from Member m
+            where m.owner = :owner
+            order by m.id asc
+            """)
+    Stream<MemberRow> streamRowsByOwnerOrderById(String owner);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Member m
+            set m.deletedDate = :deletedDate, m.version = m.version + 1
+            where m.id = :id and m.owner = :owner and m.deletedDate is null
+            """)
+    int softDeleteActiveByIdAndOwner(Long id, String owner, LocalDateTime deletedDate);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Member m
+            set m.deletedDate = :deletedDate, m.version = m.version + 1
+            where m.id = :id and m.owner = :owner and m.deletedDate > :deletedDate
+            """)
+    int softDeleteScheduledByIdAndOwner(Long id, String owner, LocalDateTime deletedDate);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Member m
+            set m.deletedDate = :deletedDate, m.version = m.version + 1
+            where m.id in :ids and m.owner = :owner and m.deletedDate is null
+            """)
+    int softDeleteActiveByIdInAndOwner(Collection<Long> ids, String owner, LocalDateTime deletedDate);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Member m
+            set m.deletedDate = :deletedDate, m.version = m.version + 1
+            where m.id in :ids and m.owner = :owner and m.deletedDate > :deletedDate
+            """)
+    int softDeleteScheduledByIdInAndOwner(Collection<Long> ids, String owner, LocalDateTime deletedDate);
 
 }
@@ -0,0 +1,34 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.repository;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberState;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberBatchOperation;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberCursor;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberPatch;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberSearch;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MemberRepositoryCustom {
+
+    Optional<MemberState> lockStateByIdAndOwner(Long id, String owner);
+
+    List<MemberState> lockStatesByIdInAndOwner(Collection<Long> ids, String owner);
+
+    int updateByIdAndOwnerAndVersion(Long id, String owner, long version, Member update);
+
+    int[] updateAllByOwnerAndVersion(String owner, List<MemberBatchOperation> updates);
+
+    List<Long> insertAll(List<Member> members);
+
+    int patchByIdAndOwner(Long id, String owner, Long version, MemberPatch patch);
+
+    int purgeDeletedBefore(LocalDateTime cutoff, int limit);
+
+    List<MemberRow> search(String owner, MemberSearch search, MemberCursor after, int limit);
+
+}
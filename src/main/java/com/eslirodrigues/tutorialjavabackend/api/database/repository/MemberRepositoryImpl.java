@@ -0,0 +1,517 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.repository;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberState;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberBatchOperation;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberCursor;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberPatch;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberSearch;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+class MemberRepositoryImpl implements MemberRepositoryCustom {
+
+    private static final String SONS_ROLE = Member.class.getName() + ".sons";
+    private static final char LIKE_ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<MemberState> lockStateByIdAndOwner(Long id, String owner) {
+        return lockStatesByIdInAndOwner(List.of(id), owner).stream().findFirst();
+    }
+
+    @Override
+    public List<MemberState> lockStatesByIdInAndOwner(Collection<Long> ids, String owner) {
+        return entityManager.unwrap(Session.class)
+                .createNativeQuery("""
+                        select m.id, m.age, m.deleted_date,
+                               (select count(*) from member_sons s where s.member_id = m.id) as sons
+                        from member m
+                        where m.id in (:ids) and m.owner = :owner
+                        for update
+                        """, Tuple.class)
+                .addScalar("id", Long.class)
+                .addScalar("age", Integer.class)
+                .addScalar("deleted_date", LocalDateTime.class)
+                .addScalar("sons", Integer.class)
+                .setParameter("ids", ids)
+                .setParameter("owner", owner)
+                .getResultList()
+                .stream()
+                .map(row -> new MemberState(
+                        row.get(0, Long.class),
+                        row.get(1, Integer.class),
+                        row.get(2, LocalDateTime.class),
+                        row.get(3, Integer.class)))
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public int updateByIdAndOwnerAndVersion(Long id, String owner, long version, Member update) {
+        int updated = entityManager.createQuery("""
+                        update Member m
+                        set m.name = :name,
+                            m.age = :age,
+                            m.deletedDate = :deletedDate,
+                            m.version = m.version + 1
+                        where m.id = :id and m.owner = :owner and m.version = :version
+                        """)
+                .setParameter("name", update.getName())
+                .setParameter("age", update.getAge())
+                .setParameter("deletedDate", update.getDeletedDate())
+                .setParameter("id", id)
+                .setParameter("owner", owner)
+                .setParameter("version", version)
+                .executeUpdate();
+
+        if (updated > 0) {
+            entityManager.createNativeQuery("delete from member_sons where member_id = :id")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(Member.class)
+                    .setParameter("id", id)
+                    .executeUpdate();
+            insertSons(id, update.getSons());
+            evictFromCache(List.of(id));
+        }
+        return updated;
+    }
+
+    /**
+     * Applies full-replacement updates as three JDBC batches: the rows (guarded by owner and, when
+     * given, version), then the sons of every row that was updated. Returns the update count per
+     * entry, so {@code 0} means missing, not owned, or stale.
+     */
+    @Override
+    @Transactional
+    public int[] updateAllByOwnerAndVersion(String owner, List<MemberBatchOperation> updates) {
+        if (updates.isEmpty()) {
+            return new int[0];
+        }
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("""
+                    update member
+                    set name = ?, age = ?, deleted_date = ?, version = version + 1
+                    where id = ? and owner = ? and version = coalesce(?, version)
+                    """)) {
+                for (MemberBatchOperation update : updates) {
+                    Member member = update.member();
+                    statement.setString(1, member.getName());
+                    statement.setObject(2, member.getAge(), Types.INTEGER);
+                    statement.setTimestamp(3, member.getDeletedDate() == null ? null : Timestamp.valueOf(member.getDeletedDate()));
+                    statement.setLong(4, update.id());
+                    statement.setString(5, owner);
+                    statement.setObject(6, update.version(), Types.BIGINT);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        });
+
+        List<MemberBatchOperation> updated = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                updated.add(updates.get(i));
+            }
+        }
+        if (!updated.isEmpty()) {
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement delete = connection.prepareStatement("delete from member_sons where member_id = ?");
+                     PreparedStatement insert = connection.prepareStatement("insert into member_sons (member_id, sons) values (?, ?)")) {
+                    boolean inserts = false;
+                    for (MemberBatchOperation update : updated) {
+                        delete.setLong(1, update.id());
+                        delete.addBatch();
+                        List<String> sons = update.member().getSons();
+                        for (String son : sons == null ? List.<String>of() : sons) {
+                            insert.setLong(1, update.id());
+                            insert.setString(2, son);
+                            insert.addBatch();
+                            inserts = true;
+                        }
+                    }
+                    delete.executeBatch();
+                    if (inserts) {
+                        insert.executeBatch();
+                    }
+                }
+            });
+            evictFromCache(updated.stream().map(MemberBatchOperation::id).toList());
+        }
+        return counts;
+    }
+
+    /**
+     * Bulk insert for imports, bypassing the persistence context. Ids are drawn from
+     * {@code member_seq} in the same blocks Hibernate's pooled-lo optimizer uses, then the rows and
+     * their sons are streamed with {@code COPY} on Postgres or sent as JDBC batches elsewhere.
+     * Returns the ids in input order.
+     */
+    @Override
+    @Transactional
+    public List<Long> insertAll(List<Member> members) {
+        if (members.isEmpty()) {
+            return List.of();
+        }
+        SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        int blockSize = sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Member.class)
+                .getIdentifierGenerator() instanceof SequenceStyleGenerator generator
+                ? generator.getDatabaseStructure().getIncrementSize()
+                : 1;
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            List<Long> ids = nextIds(connection, dialect, blockSize, members.size());
+            if (dialect instanceof PostgreSQLDialect) {
+                copyIn(connection, ids, members);
+            } else {
+                batchInsert(connection, ids, members);
+            }
+            return ids;
+        });
+    }
+
+    private static List<Long> nextIds(Connection connection, Dialect dialect, int blockSize, int count) throws SQLException {
+        int blocks = (count + blockSize - 1) / blockSize;
+        List<Long> ids = new ArrayList<>(blocks * blockSize);
+        if (dialect instanceof PostgreSQLDialect) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "select nextval('" + Member.ID_SEQUENCE + "') from generate_series(1, ?)")) {
+                statement.setInt(1, blocks);
+                try (ResultSet blockStarts = statement.executeQuery()) {
+                    while (blockStarts.next()) {
+                        addBlock(ids, blockStarts.getLong(1), blockSize);
+                    }
+                }
+            }
+        } else {
+            String nextValue = dialect.getSequenceSupport().getSequenceNextValString(Member.ID_SEQUENCE);
+            try (PreparedStatement statement = connection.prepareStatement(nextValue)) {
+                for (int i = 0; i < blocks; i++) {
+                    try (ResultSet blockStart = statement.executeQuery()) {
+                        blockStart.next();
+                        addBlock(ids, blockStart.getLong(1), blockSize);
+                    }
+                }
+            }
+        }
+        return List.copyOf(ids.subList(0, count));
+    }
+
+    private static void addBlock(List<Long> ids, long start, int blockSize) {
+        for (int i = 0; i < blockSize; i++) {
+            ids.add(start + i);
+        }
+    }
+
+    private static void copyIn(Connection connection, List<Long> ids, List<Member> members) throws SQLException {
+        StringBuilder rows = new StringBuilder();
+        StringBuilder sons = new StringBuilder();
+        for (int i = 0; i < members.size(); i++) {
+            Member member = members.get(i);
+            rows.append(ids.get(i)).append(',')
+                    .append(csv(member.getName())).append(',')
+                    .append(member.getAge()).append(',')
+                    .append(csv(member.getOwner())).append(',')
+                    .append(member.getDeletedDate() == null ? "" : member.getDeletedDate()).append(",0\n");
+            for (String son : sonsOf(member)) {
+                sons.append(ids.get(i)).append(',').append(csv(son)).append('\n');
+            }
+        }
+        try {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            copy.copyIn("copy member (id, name, age, owner, deleted_date, version) from stdin with (format csv)",
+                    new StringReader(rows.toString()));
+            if (!sons.isEmpty()) {
+                copy.copyIn("copy member_sons (member_id, sons) from stdin with (format csv)",
+                        new StringReader(sons.toString()));
+            }
+        } catch (IOException e) {
+            throw new SQLException("COPY into member failed", e);
+        }
+    }
+
+    private static String csv(String value) {
+        return value == null ? "" : '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void batchInsert(Connection connection, List<Long> ids, List<Member> members) throws SQLException {
+        try (PreparedStatement rows = connection.prepareStatement(
+                "insert into member (id, name, age, owner, deleted_date, version) values (?, ?, ?, ?, ?, 0)");
+             PreparedStatement sons = connection.prepareStatement(
+                     "insert into member_sons (member_id, sons) values (?, ?)")) {
+            boolean anySons = false;
+            for (int i = 0; i < members.size(); i++) {
+                Member member = members.get(i);
+                rows.setLong(1, ids.get(i));
+                rows.setString(2, member.getName());
+                rows.setObject(3, member.getAge(), Types.INTEGER);
+                rows.setString(4, member.getOwner());
+                rows.setTimestamp(5, member.getDeletedDate() == null ? null : Timestamp.valueOf(member.getDeletedDate()));
+                rows.addBatch();
+                for (String son : sonsOf(member)) {
+                    sons.setLong(1, ids.get(i));
+                    sons.setString(2, son);
+                    sons.addBatch();
+                    anySons = true;
+                }
+            }
+            rows.executeBatch();
+            if (anySons) {
+                sons.executeBatch();
+            }
+        }
+    }
+
+    private static List<String> sonsOf(Member member) {
+        return member.getSons() == null ? List.of() : member.getSons();
+    }
+
+    @Override
+    @Transactional
+    public int patchByIdAndOwner(Long id, String owner, Long version, MemberPatch patch) {
+        StringBuilder jpql = new StringBuilder("update Member m set m.version = m.version + 1");
+        patch.columns().keySet().forEach(column -> jpql.append(", m.").append(column).append(" = :").append(column));
+        jpql.append(" where m.id = :id and m.owner = :owner");
+        if (version != null) {
+            jpql.append(" and m.version = :version");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString())
+                .setParameter("id", id)
+                .setParameter("owner", owner);
+        patch.columns().forEach(query::setParameter);
+        if (version != null) {
+            query.setParameter("version", version);
+        }
+
+        int updated = query.executeUpdate();
+        if (updated > 0) {
+            if (patch.sons() != null) {
+                mergeSons(id, patch.sons());
+            }
+            evictFromCache(List.of(id));
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int purgeDeletedBefore(LocalDateTime cutoff, int limit) {
+        @SuppressWarnings("unchecked")
+        List<Long> ids = entityManager
+                .createNativeQuery("select id from member where deleted_date < :cutoff order by id limit :limit", Long.class)
+                .setParameter("cutoff", cutoff)
+                .setParameter("limit", limit)
+                .getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        entityManager.createNativeQuery("delete from member_sons where member_id in (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Member.class)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return entityManager.createNativeQuery("delete from member where id in (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Member.class)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    public List<MemberRow> search(String owner, MemberSearch search, MemberCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MemberRow> query = cb.createQuery(MemberRow.class);
+        Root<Member> member = query.from(Member.class);
+        Path<Integer> age = member.get("age");
+        Path<Long> id = member.get("id");
+        Path<LocalDateTime> deletedDate = member.get("deletedDate");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(member.get("owner"), owner));
+        if (search.name() != null && !search.name().isBlank()) {
+            String prefix = escapeLike(search.name().strip().toLowerCase(Locale.ROOT)) + "%";
+            where.add(cb.like(cb.lower(member.get("name")), prefix, LIKE_ESCAPE));
+        }
+        if (search.minAge() != null) {
+            where.add(cb.greaterThanOrEqualTo(age, search.minAge()));
+        }
+        if (search.maxAge() != null) {
+            where.add(cb.lessThanOrEqualTo(age, search.maxAge()));
+        }
+        if (search.son() != null && !search.son().isBlank()) {
+            Subquery<Integer> withSon = query.subquery(Integer.class);
+            Root<Member> correlated = withSon.correlate(member);
+            Join<Member, String> sons = correlated.join("sons");
+            withSon.select(cb.literal(1)).where(cb.equal(sons, search.son()));
+            where.add(cb.exists(withSon));
+        }
+        if (search.deleted() != null) {
+            where.add(search.deleted() ? cb.isNotNull(deletedDate) : cb.isNull(deletedDate));
+        }
+        if (search.deletedAfter() != null) {
+            where.add(cb.greaterThan(deletedDate, search.deletedAfter()));
+        }
+        if (search.deletedBefore() != null) {
+            where.add(cb.lessThan(deletedDate, search.deletedBefore()));
+        }
+        if (after != null && after.age() != null) {
+            where.add(cb.or(
+                    cb.greaterThan(age, after.age()),
+                    cb.and(cb.equal(age, after.age()), cb.greaterThan(id, after.id())),
+                    cb.isNull(age)
+            ));
+        } else if (after != null) {
+            where.add(cb.and(cb.isNull(age), cb.greaterThan(id, after.id())));
+        }
+
+        query.select(cb.construct(MemberRow.class,
+                        id, member.get("name"), age, member.get("owner"), deletedDate, member.get("version")))
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(((HibernateCriteriaBuilder) cb).asc(age, false), cb.asc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private void mergeSons(Long memberId, List<String> sons) {
+        @SuppressWarnings("unchecked")
+        List<String> current = entityManager
+                .createNativeQuery("select sons from member_sons where member_id = :id", String.class)
+                .setParameter("id", memberId)
+                .getResultList();
+
+        Map<String, Long> currentCounts = countByValue(current);
+        Map<String, Long> wantedCounts = countByValue(sons);
+        Set<String> values = new HashSet<>(currentCounts.keySet());
+        values.addAll(wantedCounts.keySet());
+
+        List<String> removed = new ArrayList<>();
+        List<String> added = new ArrayList<>();
+        for (String value : values) {
+            long have = currentCounts.getOrDefault(value, 0L);
+            long want = wantedCounts.getOrDefault(value, 0L);
+            if (want < have) {
+                removed.add(value);
+                added.addAll(Collections.nCopies((int) want, value));
+            } else if (want > have) {
+                added.addAll(Collections.nCopies((int) (want - have), value));
+            }
+        }
+
+        if (!removed.isEmpty()) {
+            entityManager.createNativeQuery("delete from member_sons where member_id = :id and sons in (:sons)")
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(Member.class)
+                    .setParameter("id", memberId)
+                    .setParameter("sons", removed)
+                    .executeUpdate();
+        }
+        insertSons(memberId, added);
+    }
+
+    private static Map<String, Long> countByValue(List<String> values) {
+        return values.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), HashMap::new, Collectors.counting()));
+    }
+
+    private void insertSons(Long memberId, Collection<String> sons) {
+        if (sons == null || sons.isEmpty()) {
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "insert into member_sons (member_id, sons) values (?, ?)")) {
+                for (String son : sons) {
+                    statement.setLong(1, memberId);
+                    statement.setString(2, son);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Evicts now, so the rest of this transaction cannot read the old entries, and again after
+     * commit, since a concurrent reader may have cached the still-committed old rows in between.
+     */
+    private void evictFromCache(Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        evict(cache, ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(cache, ids);
+                }
+            });
+        }
+    }
+
+    private static void evict(Cache cache, Collection<Long> ids) {
+        for (Long id : ids) {
+            cache.evictEntityData(Member.class, id);
+            cache.evictCollectionData(SONS_ROLE, id);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.repository;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerHistogram;
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerHistogram.Dimension;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberState;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Accumulates the changes a write makes to an owner's aggregates so they can be applied
+ * with one upsert per table. Only counted members (see {@link MemberState#isCounted()})
+ * contribute.
+ */
+@Getter
+public final class MemberStatsDelta {
+
+    private long members;
+    private long ageSum;
+    private long sonsSum;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<Dimension, Map<Integer, Long>> histogram = new EnumMap<>(Dimension.class);
+
+    public MemberStatsDelta add(MemberState state) {
+        return apply(state, 1);
+    }
+
+    public MemberStatsDelta remove(MemberState state) {
+        return apply(state, -1);
+    }
+
+    public MemberStatsDelta replace(MemberState before, MemberState after) {
+        return remove(before).add(after);
+    }
+
+    public boolean isTotalsEmpty() {
+        return members == 0 && ageSum == 0 && sonsSum == 0;
+    }
+
+    public List<MemberOwnerHistogram> histogram(String owner) {
+        List<MemberOwnerHistogram> buckets = new ArrayList<>();
+        histogram.forEach((dimension, counts) -> counts.forEach((bucket, delta) -> {
+            if (delta != 0) {
+                buckets.add(new MemberOwnerHistogram(owner, dimension, bucket, delta));
+            }
+        }));
+        return buckets;
+    }
+
+    private MemberStatsDelta apply(MemberState state, int sign) {
+        if (!state.isCounted()) {
+            return this;
+        }
+        members += sign;
+        sonsSum += (long) sign * state.sons();
+        bump(Dimension.SONS, state.sons(), sign);
+        if (state.age() != null) {
+            ageSum += (long) sign * state.age();
+            bump(Dimension.AGE, MemberOwnerHistogram.ageBucket(state.age()), sign);
+        }
+        return this;
+    }
+
+    private void bump(Dimension dimension, int bucket, int sign) {
+        histogram.computeIfAbsent(dimension, ignored -> new TreeMap<>()).merge(bucket, (long) sign, Long::sum);
+    }
+}
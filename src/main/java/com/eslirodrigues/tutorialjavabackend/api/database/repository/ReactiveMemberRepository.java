@@ -0,0 +1,67 @@
+package com.eslirodrigues.tutorialjavabackend.api.database.repository;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberSonJoinRow;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking, read-only access to members over R2DBC. Members come back joined to their sons,
+ * one row per son and ordered by member, so callers can group them while the rows stream in.
+ * Visibility mirrors the {@code @SQLRestriction} on {@code Member}.
+ */
+@Repository
+public class ReactiveMemberRepository {
+
+    private static final String SELECT_JOINED = """
+            select m.id, m.name, m.age, m.owner, m.deleted_date, m.version, s.sons
+            from %s m
+            left join member_sons s on s.member_id = m.id
+            order by m.age, m.id
+            """;
+
+    private static final String VISIBLE_TO_OWNER =
+            "owner = :owner and (deleted_date is null or deleted_date > localtimestamp)";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveMemberRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<MemberSonJoinRow> findByIdAndOwner(Long id, String owner) {
+        return databaseClient
+                .sql(SELECT_JOINED.formatted("(select * from member where id = :id and " + VISIBLE_TO_OWNER + ")"))
+                .bind("id", id)
+                .bind("owner", owner)
+                .map(ReactiveMemberRepository::toJoinRow)
+                .all();
+    }
+
+    public Flux<MemberSonJoinRow> findByOwner(String owner, long offset, int limit) {
+        return databaseClient
+                .sql(SELECT_JOINED.formatted("(select * from member where " + VISIBLE_TO_OWNER
+                        + " order by age, id limit :limit offset :offset)"))
+                .bind("owner", owner)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveMemberRepository::toJoinRow)
+                .all();
+    }
+
+    private static MemberSonJoinRow toJoinRow(Readable row) {
+        MemberRow member = new MemberRow(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("age", Integer.class),
+                row.get("owner", String.class),
+                row.get("deleted_date", LocalDateTime.class),
+                row.get("version", Long.class)
+        );
+        return new MemberSonJoinRow(member, row.get("sons", String.class));
+    }
+}
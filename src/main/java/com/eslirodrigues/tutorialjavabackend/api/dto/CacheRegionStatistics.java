@@ -0,0 +1,12 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+public record CacheRegionStatistics(
+        String region,
+        long hits,
+        long misses,
+        long puts,
+        long removals,
+        long evictions,
+        float hitPercentage
+) {
+}
@@ -0,0 +1,6 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import java.util.List;
+
+public record CursorPage<T>(List<T> content, String next) {
+}
@@ -0,0 +1,31 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+
+/**
+ * One entry of {@code POST /members/batch}. Creates carry a member and no id, updates an id and
+ * the full replacement member (plus an optional expected version), deletes only an id.
+ */
+public record MemberBatchOperation(Type op, Long id, Long version, Member member) {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    public boolean isValid() {
+        if (op == null) {
+            return false;
+        }
+        return switch (op) {
+            case CREATE -> id == null && version == null && member != null;
+            case UPDATE -> id != null && member != null;
+            case DELETE -> id != null && version == null && member == null;
+        };
+    }
+
+    public MemberBatchOperation withMember(Member member) {
+        return new MemberBatchOperation(op, id, version, member);
+    }
+}
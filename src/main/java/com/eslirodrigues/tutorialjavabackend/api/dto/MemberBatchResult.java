@@ -0,0 +1,8 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+/**
+ * Outcome of one {@link MemberBatchOperation}, in request order. {@code status} uses the code the
+ * single-member endpoint would have answered with.
+ */
+public record MemberBatchResult(int status, Long id) {
+}
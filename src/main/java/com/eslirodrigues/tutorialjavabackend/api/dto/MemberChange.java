@@ -0,0 +1,14 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import java.util.List;
+
+public record MemberChange(long sequence, Type type, List<Long> ids) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /** Events were lost for this subscriber; reload the members and carry on from this sequence. */
+        RESET
+    }
+}
@@ -0,0 +1,4 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+public record MemberCount(long members) {
+}
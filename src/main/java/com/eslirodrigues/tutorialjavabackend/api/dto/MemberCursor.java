@@ -0,0 +1,38 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in the {@code age asc nulls last, id asc} order. A null {@code age} means the
+ * cursor is already in the tail of members without an age.
+ */
+public record MemberCursor(Integer age, long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static MemberCursor after(MemberRow row) {
+        return new MemberCursor(row.age(), row.id());
+    }
+
+    public static MemberCursor decode(String token) {
+        try {
+            String raw = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            String age = raw.substring(0, separator);
+            return new MemberCursor(
+                    age.isEmpty() ? null : Integer.valueOf(age),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed member cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        return ENCODER.encodeToString(((age == null ? "" : age) + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
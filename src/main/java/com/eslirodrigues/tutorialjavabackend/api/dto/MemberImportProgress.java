@@ -0,0 +1,22 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One line of the import response. {@code committed} counts the data rows consumed up to the last
+ * commit (imported or rejected) and is the {@code offset} to resume from. Intermediate lines carry
+ * the rows rejected in that chunk; the last line has {@code done} set, or {@code error} when the
+ * import stopped early.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MemberImportProgress(
+        long committed,
+        long imported,
+        long failed,
+        List<MemberImportError> errors,
+        boolean done,
+        String error
+) {
+}
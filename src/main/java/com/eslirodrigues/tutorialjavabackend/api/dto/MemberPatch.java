@@ -0,0 +1,85 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record MemberPatch(Map<String, Object> columns, List<String> sons) {
+
+    private static final DateTimeFormatter DELETED_DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public static MemberPatch from(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+
+        Map<String, Object> columns = new LinkedHashMap<>();
+        List<String> sons = null;
+
+        for (Map.Entry<String, JsonNode> field : patch.properties()) {
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "name" -> columns.put("name", requireText(requireNonNull(value, "name"), "name"));
+                case "age" -> columns.put("age", requireInt(requireNonNull(value, "age")));
+                case "deletedDate" -> columns.put("deletedDate", value.isNull() ? null : requireDate(value));
+                case "sons" -> sons = value.isNull() ? List.of() : requireTextArray(value);
+                case "id", "owner" -> {
+                }
+                default -> throw new IllegalArgumentException("Unknown member field: " + field.getKey());
+            }
+        }
+        return new MemberPatch(Collections.unmodifiableMap(columns), sons);
+    }
+
+    public boolean isEmpty() {
+        return columns.isEmpty() && sons == null;
+    }
+
+    private static JsonNode requireNonNull(JsonNode value, String field) {
+        if (value.isNull()) {
+            throw new IllegalArgumentException(field + " cannot be removed");
+        }
+        return value;
+    }
+
+    private static String requireText(JsonNode value, String field) {
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException(field + " must be a string");
+        }
+        return value.textValue();
+    }
+
+    private static Integer requireInt(JsonNode value) {
+        if (!value.canConvertToInt() || !value.isIntegralNumber()) {
+            throw new IllegalArgumentException("age must be an integer");
+        }
+        return value.intValue();
+    }
+
+    private static LocalDateTime requireDate(JsonNode value) {
+        try {
+            return LocalDateTime.parse(requireText(value, "deletedDate"), DELETED_DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("deletedDate must match yyyy-MM-dd HH:mm:ss", e);
+        }
+    }
+
+    private static List<String> requireTextArray(JsonNode value) {
+        if (!value.isArray()) {
+            throw new IllegalArgumentException("sons must be an array");
+        }
+        List<String> sons = new ArrayList<>(value.size());
+        for (JsonNode son : value) {
+            sons.add(requireText(son, "sons"));
+        }
+        return sons;
+    }
+}
@@ -0,0 +1,39 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public record MemberResponse(
+        Long id,
+        String name,
+        Integer age,
+        String owner,
+        List<String> sons,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        LocalDateTime deletedDate,
+        @JsonIgnore
+        Long version
+) {
+
+    public static MemberResponse of(MemberRow row, List<String> sons) {
+        return new MemberResponse(row.id(), row.name(), row.age(), row.owner(), sons, row.deletedDate(), row.version());
+    }
+
+    public static MemberResponse of(Member member) {
+        return new MemberResponse(
+                member.getId(),
+                member.getName(),
+                member.getAge(),
+                member.getOwner(),
+                new ArrayList<>(member.getSons()),
+                member.getDeletedDate(),
+                member.getVersion()
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+public record MemberSearch(
+        String name,
+        Integer minAge,
+        Integer maxAge,
+        String son,
+        Boolean deleted,
+        @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime deletedAfter,
+        @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime deletedBefore
+) {
+
+    public boolean isValid() {
+        return (minAge == null || maxAge == null || minAge <= maxAge)
+                && (deletedAfter == null || deletedBefore == null || deletedAfter.isBefore(deletedBefore));
+    }
+}
@@ -0,0 +1,42 @@
+package com.eslirodrigues.tutorialjavabackend.api.dto;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerHistogram;
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerHistogram.Dimension;
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerStats;
+
+import java.util.List;
+
+public record MemberStats(
+        long members,
+        Double averageAge,
+        Double averageSons,
+        List<AgeBucket> ages,
+        List<SonsBucket> sons
+) {
+
+    public record AgeBucket(int minAge, int maxAge, long members) {
+    }
+
+    public record SonsBucket(int sons, long members) {
+    }
+
+    public static MemberStats of(MemberOwnerStats totals, List<MemberOwnerHistogram> histogram) {
+        long members = totals.getMembers();
+        return new MemberStats(
+                members,
+                members == 0 ? null : (double) totals.getAgeSum() / members,
+                members == 0 ? null : (double) totals.getSonsSum() / members,
+                histogram.stream()
+                        .filter(bucket -> bucket.getDimension() == Dimension.AGE)
+                        .map(bucket -> new AgeBucket(
+                                bucket.getBucket(),
+                                bucket.getBucket() + MemberOwnerHistogram.AGE_BUCKET_WIDTH - 1,
+                                bucket.getMembers()))
+                        .toList(),
+                histogram.stream()
+                        .filter(bucket -> bucket.getDimension() == Dimension.SONS)
+                        .map(bucket -> new SonsBucket(bucket.getBucket(), bucket.getMembers()))
+                        .toList()
+        );
+    }
+}
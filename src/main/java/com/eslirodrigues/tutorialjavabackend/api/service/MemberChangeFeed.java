@@ -0,0 +1,217 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process fan-out of committed member changes to SSE subscribers, per owner.
+ * <p>
+ * Every change gets a sequence number that doubles as the SSE event id. Each owner keeps the last
+ * {@code history-size} changes so a client reconnecting with {@code Last-Event-ID} gets what it
+ * missed; a token older than that history, or issued before this process started, gets a
+ * {@link MemberChange.Type#RESET} instead. Each subscriber has its own bounded buffer drained by a
+ * virtual thread. When a buffer overflows the subscriber is either disconnected (it resumes from
+ * its last event id) or, with {@code overflow=drop}, its backlog is replaced by a single reset.
+ */
+@Service
+public class MemberChangeFeed {
+
+    public enum OverflowPolicy { DISCONNECT, DROP }
+
+    private static final Logger log = LoggerFactory.getLogger(MemberChangeFeed.class);
+
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final long firstSequence = sequence.get();
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicLong subscribers = new AtomicLong();
+    private final Counter overflows;
+
+    @Value("${app.members.changes.history-size:1000}")
+    private int historySize;
+
+    @Value("${app.members.changes.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.members.changes.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${app.members.changes.overflow:disconnect}")
+    private OverflowPolicy overflowPolicy;
+
+    public MemberChangeFeed(MeterRegistry meterRegistry) {
+        Gauge.builder("member.changes.subscribers", subscribers, AtomicLong::get)
+                .description("Open member change streams")
+                .register(meterRegistry);
+        overflows = Counter.builder("member.changes.overflows")
+                .description("Subscribers whose buffer overflowed")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(String owner, Long since) {
+        return subscribe(owner, since, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(String owner, Long since, SseEmitter emitter) {
+        Channel channel = channels.computeIfAbsent(owner, ignored -> new Channel());
+        Subscriber subscriber;
+        synchronized (channel) {
+            List<MemberChange> replay = since == null ? List.of() : channel.since(since);
+            subscriber = new Subscriber(channel, emitter, bufferSize + replay.size() + 1);
+            subscriber.offer(SseEmitter.event().comment("subscribed"));
+            if (since != null && !channel.canResumeFrom(since)) {
+                subscriber.offer(toEvent(new MemberChange(sequence.get(), MemberChange.Type.RESET, List.of())));
+            }
+            replay.forEach(change -> subscriber.offer(toEvent(change)));
+            channel.subscribers.add(subscriber);
+        }
+        subscribers.incrementAndGet();
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            emitter.complete();
+        });
+        emitter.onError(e -> subscriber.close());
+        subscriber.start();
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onMemberChanged(MemberChanged event) {
+        Channel channel = channels.computeIfAbsent(event.owner(), ignored -> new Channel());
+        synchronized (channel) {
+            MemberChange change = new MemberChange(sequence.incrementAndGet(), event.type(), event.ids());
+            channel.append(change, historySize);
+            for (Subscriber subscriber : channel.subscribers) {
+                if (!subscriber.offer(toEvent(change))) {
+                    overflows.increment();
+                    subscriber.overflow(change.sequence());
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.members.changes.heartbeat:PT15S}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.subscribers
+                .forEach(subscriber -> subscriber.offer(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    long currentSequence() {
+        return sequence.get();
+    }
+
+    private static SseEventBuilder toEvent(MemberChange change) {
+        return SseEmitter.event()
+                .id(Long.toString(change.sequence()))
+                .name(change.type().name().toLowerCase(Locale.ROOT))
+                .data(change, MediaType.APPLICATION_JSON);
+    }
+
+    private final class Channel {
+
+        private final ArrayDeque<MemberChange> history = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private long evictedUpTo = firstSequence;
+
+        void append(MemberChange change, int limit) {
+            history.addLast(change);
+            while (history.size() > limit) {
+                evictedUpTo = history.removeFirst().sequence();
+            }
+        }
+
+        boolean canResumeFrom(long since) {
+            return since >= evictedUpTo && since <= sequence.get();
+        }
+
+        List<MemberChange> since(long since) {
+            if (!canResumeFrom(since)) {
+                return List.of();
+            }
+            return history.stream().filter(change -> change.sequence() > since).toList();
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final Channel channel;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEventBuilder> queue;
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Thread thread;
+
+        Subscriber(Channel channel, SseEmitter emitter, int capacity) {
+            this.channel = channel;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean offer(SseEventBuilder event) {
+            return !closed.get() && queue.offer(event);
+        }
+
+        void start() {
+            thread = Thread.ofVirtual().name("member-changes").start(this);
+        }
+
+        void overflow(long current) {
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                queue.clear();
+                queue.offer(toEvent(new MemberChange(current, MemberChange.Type.RESET, List.of())));
+                return;
+            }
+            close();
+            emitter.complete();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed.get()) {
+                    emitter.send(queue.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Member change stream closed: {}", e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                channel.subscribers.remove(this);
+                subscribers.decrementAndGet();
+                Thread current = thread;
+                if (current != null && current != Thread.currentThread()) {
+                    current.interrupt();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberChange;
+
+import java.util.List;
+
+public record MemberChanged(String owner, MemberChange.Type type, List<Long> ids) {
+}
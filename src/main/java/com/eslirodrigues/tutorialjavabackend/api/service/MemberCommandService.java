@@ -0,0 +1,301 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberState;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberOwnerStatsRepository;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberRepository;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberStatsDelta;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberBatchOperation;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberBatchResult;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberChange;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberPatch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Member writes that keep the per-owner aggregates ({@code member_owner_stats} and
+ * {@code member_owner_histogram}) in step with {@code member} and {@code member_sons}.
+ * A member is counted while it has no deleted date; members scheduled for deletion
+ * are not counted, and the purge job only removes members that were never counted.
+ * Every successful write publishes a {@link MemberChanged} for the change feed.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class MemberCommandService {
+
+    private final MemberRepository memberRepository;
+    private final MemberOwnerStatsRepository memberOwnerStatsRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public Member create(Member member) {
+        Member saved = memberRepository.save(member);
+        memberOwnerStatsRepository.apply(saved.getOwner(), new MemberStatsDelta().add(stateOf(saved.getId(), saved)));
+        publish(saved.getOwner(), MemberChange.Type.CREATED, List.of(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Inserts the members in one transaction. With JDBC batching enabled the rows, their sons
+     * and each owner's aggregates are written with a handful of batched statements.
+     */
+    public List<Member> createAll(List<Member> members) {
+        List<Member> saved = memberRepository.saveAll(members);
+        Map<String, MemberStatsDelta> deltas = new LinkedHashMap<>();
+        Map<String, List<Long>> ids = new LinkedHashMap<>();
+        for (Member member : saved) {
+            deltas.computeIfAbsent(member.getOwner(), owner -> new MemberStatsDelta()).add(stateOf(member.getId(), member));
+            ids.computeIfAbsent(member.getOwner(), owner -> new ArrayList<>()).add(member.getId());
+        }
+        deltas.forEach(memberOwnerStatsRepository::apply);
+        ids.forEach((owner, created) -> publish(owner, MemberChange.Type.CREATED, created));
+        return saved;
+    }
+
+    /**
+     * Bulk insert used by imports: the rows go out through {@code COPY} or JDBC batches without
+     * entering the persistence context, and the owner's aggregates are updated once per call.
+     */
+    public List<Long> importAll(String owner, List<Member> members) {
+        List<Long> ids = memberRepository.insertAll(members);
+        MemberStatsDelta delta = new MemberStatsDelta();
+        for (int i = 0; i < members.size(); i++) {
+            delta.add(stateOf(ids.get(i), members.get(i)));
+        }
+        memberOwnerStatsRepository.apply(owner, delta);
+        publish(owner, MemberChange.Type.CREATED, ids);
+        return ids;
+    }
+
+    public int updateIfVersion(Long id, String owner, long version, Member update) {
+        Optional<MemberState> before = lockVisibleState(id, owner);
+        if (before.isEmpty()) {
+            return 0;
+        }
+        int updated = memberRepository.updateByIdAndOwnerAndVersion(id, owner, version, update);
+        if (updated > 0) {
+            memberOwnerStatsRepository.apply(owner, new MemberStatsDelta().replace(before.get(), stateOf(id, update)));
+            publish(owner, MemberChange.Type.UPDATED, List.of(id));
+        }
+        return updated;
+    }
+
+    /**
+     * Unconditional full replacement. The row is locked before it is read, so the version the save
+     * is checked against is the committed one rather than whatever the second-level cache held,
+     * and a concurrent writer waits instead of failing this one with an optimistic lock error.
+     */
+    public boolean replace(Long id, String owner, Member update) {
+        Optional<MemberState> before = lockVisibleState(id, owner);
+        if (before.isEmpty()) {
+            return false;
+        }
+        Member member = memberRepository.findByIdAndOwner(id, owner);
+        memberRepository.save(new Member(
+                id,
+                update.getName(),
+                update.getAge(),
+                owner,
+                update.getSons(),
+                update.getDeletedDate(),
+                member.getVersion()
+        ));
+        memberOwnerStatsRepository.apply(owner, new MemberStatsDelta().replace(before.get(), stateOf(id, update)));
+        publish(owner, MemberChange.Type.UPDATED, List.of(id));
+        return true;
+    }
+
+    public int patch(Long id, String owner, Long version, MemberPatch patch) {
+        if (!affectsStats(patch)) {
+            int updated = memberRepository.patchByIdAndOwner(id, owner, version, patch);
+            if (updated > 0) {
+                publish(owner, MemberChange.Type.UPDATED, List.of(id));
+            }
+            return updated;
+        }
+        Optional<MemberState> before = lockVisibleState(id, owner);
+        if (before.isEmpty()) {
+            return 0;
+        }
+        int updated = memberRepository.patchByIdAndOwner(id, owner, version, patch);
+        if (updated > 0) {
+            memberOwnerStatsRepository.apply(owner, new MemberStatsDelta().replace(before.get(), patched(before.get(), patch)));
+            publish(owner, MemberChange.Type.UPDATED, List.of(id));
+        }
+        return updated;
+    }
+
+    public boolean delete(Long id, String owner) {
+        return deleteAll(List.of(id), owner) > 0;
+    }
+
+    public int deleteAll(Collection<Long> ids, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        List<MemberState> states = memberRepository.lockStatesByIdInAndOwner(ids, owner);
+
+        MemberStatsDelta delta = new MemberStatsDelta();
+        List<Long> active = states.stream().filter(MemberState::isCounted).map(MemberState::id).toList();
+        List<Long> scheduled = states.stream()
+                .filter(state -> state.deletedDate() != null && state.deletedDate().isAfter(now))
+                .map(MemberState::id)
+                .toList();
+
+        int deleted = 0;
+        if (!active.isEmpty()) {
+            deleted += memberRepository.softDeleteActiveByIdInAndOwner(active, owner, now);
+            states.forEach(delta::remove);
+            memberOwnerStatsRepository.apply(owner, delta);
+        }
+        if (!scheduled.isEmpty()) {
+            deleted += memberRepository.softDeleteScheduledByIdInAndOwner(scheduled, owner, now);
+        }
+        if (deleted > 0) {
+            publish(owner, MemberChange.Type.DELETED, concat(active, scheduled));
+        }
+        return deleted;
+    }
+
+    /**
+     * Runs a client's mixed creates, updates and deletes in one transaction. Creates are persisted
+     * through Hibernate's insert batching, updates go out as JDBC batches and deletes as the two
+     * bulk soft deletes, so the statement count does not grow with the number of operations. Ids
+     * must be distinct; results come back in request order.
+     */
+    public List<MemberBatchResult> applyBatch(String owner, List<MemberBatchOperation> operations) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> targets = operations.stream()
+                .filter(operation -> operation.op() != MemberBatchOperation.Type.CREATE)
+                .map(MemberBatchOperation::id)
+                .toList();
+        Map<Long, MemberState> before = targets.isEmpty() ? Map.of() : memberRepository
+                .lockStatesByIdInAndOwner(targets, owner).stream()
+                .filter(state -> state.deletedDate() == null || state.deletedDate().isAfter(now))
+                .collect(Collectors.toMap(MemberState::id, Function.identity()));
+
+        MemberBatchResult[] results = new MemberBatchResult[operations.size()];
+        List<Integer> creates = new ArrayList<>();
+        List<Integer> updates = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            MemberBatchOperation operation = operations.get(i);
+            if (operation.op() == MemberBatchOperation.Type.CREATE) {
+                creates.add(i);
+            } else if (!before.containsKey(operation.id())) {
+                results[i] = new MemberBatchResult(HttpStatus.NOT_FOUND.value(), operation.id());
+            } else if (operation.op() == MemberBatchOperation.Type.UPDATE) {
+                updates.add(i);
+            } else {
+                deletes.add(i);
+            }
+        }
+
+        MemberStatsDelta delta = new MemberStatsDelta();
+        List<Long> created = new ArrayList<>();
+        List<Long> updated = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+
+        List<Member> saved = memberRepository.saveAll(creates.stream().map(i -> operations.get(i).member()).toList());
+        for (int i = 0; i < saved.size(); i++) {
+            Member member = saved.get(i);
+            delta.add(stateOf(member.getId(), member));
+            created.add(member.getId());
+            results[creates.get(i)] = new MemberBatchResult(HttpStatus.CREATED.value(), member.getId());
+        }
+
+        int[] counts = memberRepository.updateAllByOwnerAndVersion(owner, updates.stream().map(operations::get).toList());
+        for (int i = 0; i < counts.length; i++) {
+            MemberBatchOperation operation = operations.get(updates.get(i));
+            if (counts[i] == 0) {
+                results[updates.get(i)] = new MemberBatchResult(HttpStatus.PRECONDITION_FAILED.value(), operation.id());
+                continue;
+            }
+            delta.replace(before.get(operation.id()), stateOf(operation.id(), operation.member()));
+            updated.add(operation.id());
+            results[updates.get(i)] = new MemberBatchResult(HttpStatus.NO_CONTENT.value(), operation.id());
+        }
+
+        List<Long> active = new ArrayList<>();
+        List<Long> scheduled = new ArrayList<>();
+        for (int i : deletes) {
+            MemberState state = before.get(operations.get(i).id());
+            (state.isCounted() ? active : scheduled).add(state.id());
+            delta.remove(state);
+            deleted.add(state.id());
+            results[i] = new MemberBatchResult(HttpStatus.NO_CONTENT.value(), state.id());
+        }
+        if (!active.isEmpty()) {
+            memberRepository.softDeleteActiveByIdInAndOwner(active, owner, now);
+        }
+        if (!scheduled.isEmpty()) {
+            memberRepository.softDeleteScheduledByIdInAndOwner(scheduled, owner, now);
+        }
+
+        memberOwnerStatsRepository.apply(owner, delta);
+        if (!created.isEmpty()) {
+            publish(owner, MemberChange.Type.CREATED, created);
+        }
+        if (!updated.isEmpty()) {
+            publish(owner, MemberChange.Type.UPDATED, updated);
+        }
+        if (!deleted.isEmpty()) {
+            publish(owner, MemberChange.Type.DELETED, deleted);
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Locks the member's row, treating one whose deleted date has passed as missing, as every
+     * {@code @SQLRestriction}-filtered read does. The lock itself is a native query and still sees it.
+     */
+    private Optional<MemberState> lockVisibleState(Long id, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        return memberRepository.lockStateByIdAndOwner(id, owner)
+                .filter(state -> state.deletedDate() == null || state.deletedDate().isAfter(now));
+    }
+
+    private void publish(String owner, MemberChange.Type type, List<Long> ids) {
+        eventPublisher.publishEvent(new MemberChanged(owner, type, ids));
+    }
+
+    private static List<Long> concat(List<Long> first, List<Long> second) {
+        return Stream.concat(first.stream(), second.stream()).toList();
+    }
+
+    private static boolean affectsStats(MemberPatch patch) {
+        Map<String, Object> columns = patch.columns();
+        return columns.containsKey("age") || columns.containsKey("deletedDate") || patch.sons() != null;
+    }
+
+    private static MemberState patched(MemberState before, MemberPatch patch) {
+        Map<String, Object> columns = patch.columns();
+        return new MemberState(
+                before.id(),
+                columns.containsKey("age") ? (Integer) columns.get("age") : before.age(),
+                columns.containsKey("deletedDate") ? (LocalDateTime) columns.get("deletedDate") : before.deletedDate(),
+                patch.sons() != null ? patch.sons().size() : before.sons()
+        );
+    }
+
+    private static MemberState stateOf(Long id, Member member) {
+        return new MemberState(
+                id,
+                member.getAge(),
+                member.getDeletedDate(),
+                member.getSons() == null ? 0 : member.getSons().size()
+        );
+    }
+}
@@ -0,0 +1,61 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberRepository;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Streams an owner's members as NDJSON. Rows come from a fetch-size cursor as projections, and
+ * the sons of each fetched chunk are loaded with one query before the chunk is written and flushed.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    private static final int CHUNK_SIZE = MemberRepository.EXPORT_FETCH_SIZE;
+
+    private final MemberRepository memberRepository;
+    private final MemberQueryService memberQueryService;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportByOwner(String owner, OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<MemberRow> rows = memberRepository.streamRowsByOwnerOrderById(owner);
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            Iterator<MemberRow> iterator = rows.iterator();
+            List<MemberRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == CHUNK_SIZE || !iterator.hasNext()) {
+                    written += write(memberQueryService.withSons(chunk), generator);
+                    chunk.clear();
+                }
+            }
+        }
+        return written;
+    }
+
+    private static int write(List<MemberResponse> members, JsonGenerator generator) throws IOException {
+        for (MemberResponse member : members) {
+            generator.writeObject(member);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        return members.size();
+    }
+}
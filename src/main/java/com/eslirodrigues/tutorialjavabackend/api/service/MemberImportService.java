@@ -0,0 +1,355 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberImportError;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberImportProgress;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams an NDJSON or CSV upload into {@code member} and {@code member_sons} for one owner.
+ * <p>
+ * The input is read line by line and written in chunks of {@code app.members.import.chunk-size}
+ * rows, each chunk in its own transaction through {@link MemberCommandService#importAll}. After
+ * every chunk a {@link MemberImportProgress} line is written to the response, so a client that
+ * loses the connection re-sends the same file with {@code offset} set to the last
+ * {@code committed} value. Rows that fail to parse or validate are reported and skipped; a
+ * database error stops the import at the last committed chunk.
+ * <p>
+ * CSV input needs a header naming the {@code name}, {@code age}, {@code sons} and
+ * {@code deleted_date} columns (any order; only {@code name} and {@code age} are required).
+ * Sons are separated by {@code |}, dates use {@code yyyy-MM-dd HH:mm:ss}, and quoted fields may
+ * not span lines.
+ * <p>
+ * Lines are capped at {@code app.members.import.max-line-length} characters. A longer row is
+ * read through to its line break without being buffered and reported as a row error.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final Logger log = LoggerFactory.getLogger(MemberImportService.class);
+    private static final DateTimeFormatter DELETED_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final MemberCommandService memberCommandService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.members.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.members.import.max-errors-per-chunk:100}")
+    private int maxErrorsPerChunk;
+
+    @Value("${app.members.import.max-line-length:65536}")
+    private int maxLineLength;
+
+    public MemberImportProgress importMembers(String owner, Format format, InputStream in, long offset, OutputStream out)
+            throws IOException {
+        LineReader reader = new LineReader(new InputStreamReader(in, StandardCharsets.UTF_8), maxLineLength);
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Run run = new Run(owner, offset, generator);
+
+            RowParser parser = format == Format.CSV ? null : this::parseJson;
+            long row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                boolean oversized = reader.oversized();
+                if (!oversized && line.isBlank()) {
+                    continue;
+                }
+                if (parser == null) {
+                    if (oversized) {
+                        return run.stop("CSV header is longer than " + maxLineLength + " characters");
+                    }
+                    try {
+                        parser = csvParser(line);
+                    } catch (IllegalArgumentException e) {
+                        return run.stop(e.getMessage());
+                    }
+                    continue;
+                }
+                if (++row <= offset) {
+                    continue;
+                }
+                if (oversized) {
+                    run.reject(row, "row is longer than " + maxLineLength + " characters");
+                } else {
+                    try {
+                        Member member = parser.parse(line);
+                        run.accept(validated(new Member(null, member.getName(), member.getAge(), owner,
+                                member.getSons(), member.getDeletedDate())));
+                    } catch (IllegalArgumentException | JsonProcessingException e) {
+                        run.reject(row, messageOf(e));
+                    }
+                }
+                if (row - run.committed == chunkSize && !run.commit(row)) {
+                    return run.stop("Chunk ending at row " + row + " could not be written");
+                }
+            }
+            if (row > run.committed && !run.commit(row)) {
+                return run.stop("Chunk ending at row " + row + " could not be written");
+            }
+            return run.finish();
+        }
+    }
+
+    private final class Run {
+
+        private final String owner;
+        private final JsonGenerator generator;
+        private final List<Member> chunk = new ArrayList<>();
+        private final List<MemberImportError> errors = new ArrayList<>();
+        private long committed;
+        private long imported;
+        private long failed;
+        private long chunkFailed;
+
+        Run(String owner, long offset, JsonGenerator generator) {
+            this.owner = owner;
+            this.committed = offset;
+            this.generator = generator;
+        }
+
+        void accept(Member member) {
+            chunk.add(member);
+        }
+
+        void reject(long row, String message) {
+            chunkFailed++;
+            if (errors.size() < maxErrorsPerChunk) {
+                errors.add(new MemberImportError(row, message));
+            }
+        }
+
+        boolean commit(long row) throws IOException {
+            try {
+                if (!chunk.isEmpty()) {
+                    memberCommandService.importAll(owner, chunk);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Member import for {} stopped after row {}", owner, committed, e);
+                return false;
+            }
+            committed = row;
+            imported += chunk.size();
+            failed += chunkFailed;
+            write(new MemberImportProgress(committed, imported, failed, List.copyOf(errors), false, null));
+            chunk.clear();
+            errors.clear();
+            chunkFailed = 0;
+            return true;
+        }
+
+        MemberImportProgress stop(String error) throws IOException {
+            return write(new MemberImportProgress(committed, imported, failed, List.of(), false, error));
+        }
+
+        MemberImportProgress finish() throws IOException {
+            return write(new MemberImportProgress(committed, imported, failed, List.of(), true, null));
+        }
+
+        private MemberImportProgress write(MemberImportProgress progress) throws IOException {
+            generator.writeObject(progress);
+            generator.writeRaw('\n');
+            generator.flush();
+            return progress;
+        }
+    }
+
+    /**
+     * Reads lines like {@link BufferedReader#readLine()}, but keeps at most {@code maxLength}
+     * characters of one. Past that the rest of the line is skipped, {@link #readLine()} returns an
+     * empty string and {@link #oversized()} is {@code true} until the next line is read.
+     */
+    private static final class LineReader {
+
+        private final Reader in;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        private boolean oversized;
+
+        LineReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        String readLine() throws IOException {
+            line.setLength(0);
+            oversized = false;
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = in.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit < 0) {
+                        limit = 0;
+                        return read ? current() : null;
+                    }
+                }
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (buffer[position] == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                    position++;
+                }
+                append(start, position);
+                read |= position > start;
+                if (position < limit) {
+                    skipLineFeed = buffer[position] == '\r';
+                    position++;
+                    return current();
+                }
+            }
+        }
+
+        boolean oversized() {
+            return oversized;
+        }
+
+        private void append(int start, int end) {
+            if (oversized) {
+                return;
+            }
+            if (line.length() + end - start > maxLength) {
+                oversized = true;
+                line.setLength(0);
+            } else {
+                line.append(buffer, start, end - start);
+            }
+        }
+
+        private String current() {
+            return oversized ? "" : line.toString();
+        }
+    }
+
+    private Member parseJson(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, Member.class);
+    }
+
+    private static RowParser csvParser(String headerLine) {
+        List<String> header = csvFields(headerLine).stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        int name = header.indexOf("name");
+        int age = header.indexOf("age");
+        int sons = header.indexOf("sons");
+        int deletedDate = Math.max(header.indexOf("deleted_date"), header.indexOf("deleteddate"));
+        if (name < 0 || age < 0) {
+            throw new IllegalArgumentException("CSV header must name the name and age columns");
+        }
+        return line -> {
+            List<String> fields = csvFields(line);
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("expected " + header.size() + " fields but found " + fields.size());
+            }
+            String sonsField = sons < 0 ? "" : fields.get(sons);
+            String deletedField = deletedDate < 0 ? "" : fields.get(deletedDate);
+            try {
+                return new Member(
+                        null,
+                        fields.get(name),
+                        Integer.valueOf(fields.get(age).trim()),
+                        null,
+                        sonsField.isEmpty() ? List.of() : Arrays.asList(sonsField.split("\\|", -1)),
+                        deletedField.isBlank() ? null : LocalDateTime.parse(deletedField.trim(), DELETED_DATE)
+                );
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("deleted_date must use yyyy-MM-dd HH:mm:ss", e);
+            }
+        };
+    }
+
+    static List<String> csvFields(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static Member validated(Member member) {
+        if (member.getName() == null || member.getName().isBlank() || member.getName().length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("name must be 1 to " + MAX_TEXT_LENGTH + " characters");
+        }
+        if (member.getAge() == null || member.getAge() < 0) {
+            throw new IllegalArgumentException("age must be zero or more");
+        }
+        if (member.getSons() != null && member.getSons().stream()
+                .anyMatch(son -> son == null || son.isBlank() || son.length() > MAX_TEXT_LENGTH)) {
+            throw new IllegalArgumentException("sons must be 1 to " + MAX_TEXT_LENGTH + " characters");
+        }
+        return member;
+    }
+
+    private static String messageOf(Exception e) {
+        if (e instanceof JsonProcessingException json) {
+            return json.getOriginalMessage();
+        }
+        if (e instanceof NumberFormatException) {
+            return "age must be a whole number";
+        }
+        return e.getMessage();
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        Member parse(String line) throws JsonProcessingException;
+    }
+}
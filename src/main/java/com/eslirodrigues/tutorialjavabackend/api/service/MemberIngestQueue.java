@@ -0,0 +1,177 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind path for {@code POST /members}, enabled with {@code app.members.ingest.enabled}.
+ * <p>
+ * Requests wait in a bounded queue; a single writer drains up to {@code max-batch-size} of them,
+ * lingering briefly for stragglers, and inserts the whole group with {@link MemberCommandService#createAll}
+ * so they share one transaction and one commit. Each caller's future completes once that commit
+ * returns. If a group fails, its members are retried one by one so a single bad row only fails its
+ * own request. When the queue is full or the writer has stopped, submissions fail fast with a
+ * {@link RejectedExecutionException}; whatever is still queued at shutdown is written first.
+ */
+@Service
+public class MemberIngestQueue implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberIngestQueue.class);
+
+    private final MemberCommandService memberCommandService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.members.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.members.ingest.capacity:10000}")
+    private int capacity;
+
+    @Value("${app.members.ingest.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.members.ingest.linger:2ms}")
+    private Duration linger;
+
+    private BlockingQueue<Pending> queue;
+    private Thread writer;
+    private volatile boolean running;
+    private DistributionSummary batchSizes;
+    private Counter rejected;
+
+    public MemberIngestQueue(MemberCommandService memberCommandService, MeterRegistry meterRegistry) {
+        this.memberCommandService = memberCommandService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<Member> submit(Member member) {
+        if (!running) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Member ingest is not running"));
+        }
+        Pending pending = new Pending(member, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            pending.result().completeExceptionally(new RejectedExecutionException("Member ingest queue is full"));
+        } else if (!running && queue.remove(pending)) {
+            // Raced with destroy() after its final drain; nothing will pick this up any more.
+            pending.result().completeExceptionally(new RejectedExecutionException("Member ingest is not running"));
+        }
+        return pending.result();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+        Gauge.builder("member.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Member creations waiting to be written")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("member.ingest.batch.size")
+                .description("Member creations written per commit")
+                .register(meterRegistry);
+        rejected = Counter.builder("member.ingest.rejected")
+                .description("Member creations rejected because the ingest queue was full")
+                .register(meterRegistry);
+        running = true;
+        writer = Thread.ofPlatform().name("member-ingest").daemon().start(this::run);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        List<Pending> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, maxBatchSize) > 0) {
+            write(remaining);
+            remaining = new ArrayList<>();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    write(collectBatch(first));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<Pending> collectBatch(Pending first) throws InterruptedException {
+        List<Pending> batch = new ArrayList<>(Math.min(maxBatchSize, queue.size() + 1));
+        batch.add(first);
+        long deadline = System.nanoTime() + linger.toNanos();
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void write(List<Pending> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<Member> saved = memberCommandService.createAll(batch.stream().map(Pending::member).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.getFirst().result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Batched insert of {} members failed, retrying them one by one", batch.size(), e);
+            for (Pending pending : batch) {
+                pending.member().setId(null);
+                pending.member().setVersion(null);
+                try {
+                    pending.result().complete(memberCommandService.create(pending.member()));
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    private record Pending(Member member, CompletableFuture<Member> result) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.members.purge.enabled", havingValue = "true", matchIfMissing = true)
+public class MemberPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberPurgeJob.class);
+
+    private final MemberRepository memberRepository;
+
+    @Value("${app.members.purge.retention:P30D}")
+    private Duration retention;
+
+    @Value("${app.members.purge.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.members.purge.max-chunks-per-run:100}")
+    private int maxChunksPerRun;
+
+    @Value("${app.members.purge.pause-between-chunks:200ms}")
+    private Duration pauseBetweenChunks;
+
+    @Scheduled(
+            initialDelayString = "${app.members.purge.initial-delay:PT5M}",
+            fixedDelayString = "${app.members.purge.interval:PT5M}"
+    )
+    public void purgeExpiredMembers() {
+        long purged = purge(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} members soft-deleted more than {} ago", purged, retention);
+        }
+    }
+
+    public long purge(LocalDateTime cutoff) {
+        long purged = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int deleted = memberRepository.purgeDeletedBefore(cutoff, chunkSize);
+            purged += deleted;
+            if (deleted < chunkSize) {
+                break;
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenChunks);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
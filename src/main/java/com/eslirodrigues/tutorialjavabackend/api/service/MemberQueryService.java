@@ -0,0 +1,133 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerStats;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberSonRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberOwnerHistogramRepository;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberOwnerStatsRepository;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberRepository;
+import com.eslirodrigues.tutorialjavabackend.api.dto.CursorPage;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberCount;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberCursor;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberResponse;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberSearch;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberQueryService {
+
+    private final MemberRepository memberRepository;
+    private final MemberOwnerStatsRepository memberOwnerStatsRepository;
+    private final MemberOwnerHistogramRepository memberOwnerHistogramRepository;
+
+    @Value("${spring.jpa.properties.hibernate.cache.use_second_level_cache:false}")
+    private boolean secondLevelCacheEnabled;
+
+    public Optional<MemberResponse> findByIdAndOwner(Long id, String owner) {
+        if (secondLevelCacheEnabled) {
+            return memberRepository.findById(id)
+                    .filter(member -> isVisibleTo(member, owner))
+                    .map(MemberResponse::of);
+        }
+        return memberRepository.findRowByIdAndOwner(id, owner)
+                .map(row -> withSons(List.of(row)).getFirst());
+    }
+
+    public Optional<Long> findVersionByIdAndOwner(Long id, String owner) {
+        if (secondLevelCacheEnabled) {
+            return memberRepository.findById(id)
+                    .filter(member -> isVisibleTo(member, owner))
+                    .map(Member::getVersion);
+        }
+        return memberRepository.findVersionByIdAndOwner(id, owner);
+    }
+
+    public Slice<MemberRow> findRowsByOwner(String owner, Pageable pageable) {
+        return memberRepository.findRowsByOwner(owner, pageable);
+    }
+
+    public MemberCount countByOwner(String owner) {
+        return new MemberCount(memberOwnerStatsRepository.findById(owner)
+                .map(MemberOwnerStats::getMembers)
+                .orElse(0L));
+    }
+
+    public MemberStats statsByOwner(String owner) {
+        MemberOwnerStats totals = memberOwnerStatsRepository.findById(owner)
+                .orElseGet(() -> MemberOwnerStats.empty(owner));
+        return MemberStats.of(
+                totals,
+                memberOwnerHistogramRepository.findByOwnerAndMembersGreaterThanOrderByDimensionAscBucketAsc(owner, 0)
+        );
+    }
+
+    public CursorPage<MemberResponse> findByOwnerAfter(String owner, MemberCursor after, int pageSize) {
+        Limit limit = Limit.of(pageSize + 1);
+        if (after == null) {
+            return toCursorPage(memberRepository.findRowsByOwnerFirst(owner, limit), pageSize);
+        }
+        if (after.age() == null) {
+            return toCursorPage(memberRepository.findRowsByOwnerWithoutAgeAfter(owner, after.id(), limit), pageSize);
+        }
+        List<MemberRow> rows = memberRepository.findRowsByOwnerAfter(owner, after.age(), after.id(), limit);
+        if (rows.size() > pageSize) {
+            return toCursorPage(rows, pageSize);
+        }
+        // Past the last aged member: members without an age sort last, so continue with them.
+        List<MemberRow> withoutAge = memberRepository.findRowsByOwnerWithoutAgeAfter(
+                owner, Long.MIN_VALUE, Limit.of(pageSize + 1 - rows.size()));
+        return toCursorPage(Stream.concat(rows.stream(), withoutAge.stream()).toList(), pageSize);
+    }
+
+    public CursorPage<MemberResponse> search(String owner, MemberSearch search, MemberCursor after, int pageSize) {
+        return toCursorPage(memberRepository.search(owner, search, after, pageSize + 1), pageSize);
+    }
+
+    private CursorPage<MemberResponse> toCursorPage(List<MemberRow> rows, int pageSize) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(withSons(rows), null);
+        }
+        List<MemberRow> content = rows.subList(0, pageSize);
+        return new CursorPage<>(withSons(content), MemberCursor.after(content.getLast()).encode());
+    }
+
+    public List<MemberResponse> withSons(List<MemberRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<String>> sonsByMemberId = new HashMap<>();
+        for (MemberRow row : rows) {
+            sonsByMemberId.put(row.id(), new ArrayList<>());
+        }
+        for (MemberSonRow son : memberRepository.findSonsByMemberIdIn(sonsByMemberId.keySet())) {
+            sonsByMemberId.get(son.memberId()).add(son.son());
+        }
+
+        return rows.stream()
+                .map(row -> MemberResponse.of(row, sonsByMemberId.get(row.id())))
+                .toList();
+    }
+
+    private static boolean isVisibleTo(Member member, String owner) {
+        return owner.equals(member.getOwner()) && !member.isDeletedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,46 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberSonJoinRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.ReactiveMemberRepository;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveMemberQueryService {
+
+    private final ReactiveMemberRepository reactiveMemberRepository;
+
+    public Mono<MemberResponse> findByIdAndOwner(Long id, String owner) {
+        return withSons(reactiveMemberRepository.findByIdAndOwner(id, owner)).next();
+    }
+
+    public Flux<MemberResponse> findByOwner(String owner, int page, int size) {
+        return withSons(reactiveMemberRepository.findByOwner(owner, (long) page * size, size));
+    }
+
+    /**
+     * Folds consecutive join rows of the same member into one response. Rows are only requested as
+     * downstream demand allows, so a slow client holds back the database cursor instead of buffering
+     * the page in memory.
+     */
+    private static Flux<MemberResponse> withSons(Flux<MemberSonJoinRow> rows) {
+        return rows
+                .bufferUntilChanged(row -> row.member().id())
+                .map(ReactiveMemberQueryService::toResponse);
+    }
+
+    private static MemberResponse toResponse(List<MemberSonJoinRow> rows) {
+        List<String> sons = rows.stream()
+                .map(MemberSonJoinRow::son)
+                .filter(Objects::nonNull)
+                .toList();
+        return MemberResponse.of(rows.getFirst().member(), sons);
+    }
+}
@@ -0,0 +1,29 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Registers CBOR and Smile converters built from Boot's {@link Jackson2ObjectMapperBuilder}, so the
+ * binary encodings share the JSON mapper's modules and {@code spring.jackson.*} settings instead of
+ * the defaults Spring MVC would otherwise use. Clients pick the encoding with {@code Accept} and
+ * {@code Content-Type}; JSON stays the default.
+ */
+@Configuration
+public class BinaryJsonConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,19 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+public class CompressionConfig {
+
+    @Bean
+    FilterRegistrationBean<DeferredFlushFilter> deferredFlushFilter() {
+        FilterRegistrationBean<DeferredFlushFilter> registration = new FilterRegistrationBean<>(new DeferredFlushFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
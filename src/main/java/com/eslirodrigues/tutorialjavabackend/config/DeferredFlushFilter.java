@@ -0,0 +1,101 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ignores flushes made while the handler is still running on the request thread. Spring's message
+ * converters flush after writing every body, which commits the response chunked before Tomcat
+ * knows its length, so {@code server.compression.min-response-size} never applies and even a
+ * one-member response gets gzipped. Held back, a body that fits in the response buffer is sent
+ * with a {@code Content-Length} when the request completes. Bodies written after the request has
+ * gone async (exports, import progress, SSE) still flush straight through.
+ */
+public class DeferredFlushFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        filterChain.doFilter(request, new DeferredFlushResponse(request, response));
+    }
+
+    private static final class DeferredFlushResponse extends HttpServletResponseWrapper {
+
+        private final HttpServletRequest request;
+        private ServletOutputStream outputStream;
+
+        DeferredFlushResponse(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new DeferredFlushOutputStream(request, super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (request.isAsyncStarted()) {
+                super.flushBuffer();
+            }
+        }
+    }
+
+    private static final class DeferredFlushOutputStream extends ServletOutputStream {
+
+        private final HttpServletRequest request;
+        private final ServletOutputStream delegate;
+
+        DeferredFlushOutputStream(HttpServletRequest request, ServletOutputStream delegate) {
+            this.request = request;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (request.isAsyncStarted()) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
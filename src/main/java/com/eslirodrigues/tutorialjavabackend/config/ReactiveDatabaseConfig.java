@@ -0,0 +1,51 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Builds the pooled R2DBC client behind the reactive read API. The pool is deliberately not a
+ * {@code ConnectionFactory} bean: Boot's {@code DataSourceAutoConfiguration} backs off as soon as
+ * one exists, which would take JPA down with it. {@code R2dbcAutoConfiguration} is excluded for the
+ * same reason.
+ */
+@Configuration
+public class ReactiveDatabaseConfig implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(
+            @Value("${app.r2dbc.url}") String url,
+            @Value("${app.r2dbc.username}") String username,
+            @Value("${app.r2dbc.password}") String password,
+            @Value("${app.r2dbc.pool.max-size:10}") int maxSize,
+            @Value("${app.r2dbc.pool.max-acquire-time:30s}") Duration maxAcquireTime
+    ) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
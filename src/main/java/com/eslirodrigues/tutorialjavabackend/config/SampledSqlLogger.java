@@ -0,0 +1,28 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+public class SampledSqlLogger implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(SampledSqlLogger.class);
+
+    private final double sampleRate;
+
+    public SampledSqlLogger(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (log.isDebugEnabled()) {
+            log.debug("{}", sql);
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate && log.isInfoEnabled()) {
+            log.info("[sampled] {}", sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,18 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import org.hibernate.cfg.JdbcSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SqlLoggingConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer sampledSqlLogging(
+            @Value("${app.sql.log.sample-rate:0.01}") double sampleRate
+    ) {
+        return properties -> properties.put(JdbcSettings.STATEMENT_INSPECTOR, new SampledSqlLogger(sampleRate));
+    }
+}
@@ -0,0 +1,60 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class SqlMonitoringConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<SqlStatementListener> sqlStatementListener;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${app.sql.statement-budget.default:20}")
+    private int defaultStatementBudget;
+
+    public SqlMonitoringConfig(ObjectProvider<SqlStatementListener> sqlStatementListener,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.sqlStatementListener = sqlStatementListener;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    static SqlStatementListener sqlStatementListener(
+            @Value("${app.sql.log.slow-query-threshold:500ms}") Duration slowQueryThreshold
+    ) {
+        return new SqlStatementListener(slowQueryThreshold);
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor(ObjectProvider<SqlStatementListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementBudgetInterceptor(
+                sqlStatementListener.getObject(), meterRegistry.getObject(), defaultStatementBudget));
+    }
+}
@@ -0,0 +1,78 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementListener.class);
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong totalStatements = new AtomicLong();
+    private final long slowQueryThresholdMillis;
+
+    public SqlStatementListener(Duration slowQueryThreshold) {
+        this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+    }
+
+    public RequestStatements begin() {
+        RequestStatements statements = new RequestStatements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    public void end() {
+        CURRENT.remove();
+    }
+
+    public long totalStatements() {
+        return totalStatements.get();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        totalStatements.incrementAndGet();
+        RequestStatements current = CURRENT.get();
+        if (current != null) {
+            current.record(execInfo.getElapsedTime());
+        }
+        if (execInfo.getElapsedTime() >= slowQueryThresholdMillis && log.isWarnEnabled()) {
+            log.warn("Slow query took {}ms{}: {} [{} bind parameters redacted]",
+                    execInfo.getElapsedTime(),
+                    execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "",
+                    queryInfoList.stream().map(QueryInfo::getQuery).distinct().toList(),
+                    queryInfoList.stream().mapToInt(query -> query.getParametersList().size()).sum());
+        }
+    }
+
+    public static final class RequestStatements {
+
+        private int count;
+        private long elapsedMillis;
+
+        void record(long millis) {
+            count++;
+            elapsedMillis += millis;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        public long elapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetInterceptor.class);
+
+    public static final String STATEMENTS_ATTRIBUTE = StatementBudgetInterceptor.class.getName() + ".statements";
+
+    private final SqlStatementListener listener;
+    private final MeterRegistry meterRegistry;
+    private final int defaultBudget;
+
+    public StatementBudgetInterceptor(SqlStatementListener listener, MeterRegistry meterRegistry, int defaultBudget) {
+        this.listener = listener;
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = defaultBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC && request.getAttribute(STATEMENTS_ATTRIBUTE) != null) {
+            // Resuming an async handler: keep the count from the initial dispatch.
+            return true;
+        }
+        request.setAttribute(STATEMENTS_ATTRIBUTE, listener.begin());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        listener.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        listener.end();
+        if (!(request.getAttribute(STATEMENTS_ATTRIBUTE) instanceof SqlStatementListener.RequestStatements statements)) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.statements")
+                .description("JDBC statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)))
+                .register(meterRegistry)
+                .record(statements.count());
+
+        int budget = budgetOf(handler);
+        if (statements.count() > budget) {
+            meterRegistry.counter("sql.statement.budget.exceeded",
+                    "method", request.getMethod(),
+                    "uri", String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+            ).increment();
+            log.warn("{} issued {} statements ({}ms) against a budget of {}",
+                    endpoint, statements.count(), statements.elapsedMillis(), budget);
+        }
+    }
+
+    private int budgetOf(Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            StatementBudget budget = handlerMethod.getMethodAnnotation(StatementBudget.class);
+            if (budget != null) {
+                return budget.value();
+            }
+        }
+        return defaultBudget;
+    }
+}
@@ -0,0 +1,51 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(Environment environment) {
+        int maxConnections = environment.getProperty(
+                "app.datasource.max-concurrent-connections", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = environment.getProperty(
+                "app.datasource.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, maxConnections, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder connectionLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConnectionLimitingDataSource limiter) {
+                Gauge.builder("datasource.limiter.available", limiter, ConnectionLimitingDataSource::getAvailablePermits)
+                        .description("Connection permits currently free")
+                        .register(registry);
+                Gauge.builder("datasource.limiter.waiting", limiter, ConnectionLimitingDataSource::getQueueLength)
+                        .description("Threads waiting for a connection permit")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps requests in flight across all principals. The cap adapts to database latency with AIMD:
+ * every finished request that ran statements reports its mean statement time; above the target
+ * the limit shrinks by 10%, at or below it the limit grows by one, but only while at least half of
+ * it is in use so an idle service does not drift up to the maximum.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyMillis;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger limit;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, Duration targetLatency) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyMillis = targetLatency.toMillis();
+        this.limit = new AtomicInteger(Math.clamp(initialLimit, minLimit, maxLimit));
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases a slot taken by {@link #tryAcquire()}. {@code meanStatementMillis} is negative when
+     * the request did not touch the database, in which case the limit is left alone.
+     */
+    void release(double meanStatementMillis) {
+        int stillInFlight = inFlight.decrementAndGet();
+        if (meanStatementMillis < 0) {
+            return;
+        }
+        if (meanStatementMillis > targetLatencyMillis) {
+            limit.updateAndGet(current -> Math.max(minLimit, (int) (current * 0.9)));
+        } else {
+            limit.updateAndGet(current -> (stillInFlight + 1) * 2 >= current ? Math.min(maxLimit, current + 1) : current);
+        }
+    }
+
+    int limit() {
+        return limit.get();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,176 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import com.eslirodrigues.tutorialjavabackend.config.SqlStatementListener;
+import com.eslirodrigues.tutorialjavabackend.config.StatementBudgetInterceptor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds load per principal and globally before a request reaches a controller. Each authenticated
+ * principal draws from its own {@link TokenBucket}, sized by role, and every admitted request also
+ * needs a slot in the shared {@link AdaptiveConcurrencyLimit}. A request that gets neither is
+ * answered {@code 429} with {@code Retry-After} straight away rather than waiting for a thread or a
+ * connection. Runs after the authorization filter, so the principal and its roles are known and
+ * rejected credentials never spend tokens.
+ * <p>
+ * The concurrency slot is held until the response is complete, so streaming imports and exports
+ * keep it while their body runs asynchronously. SSE subscriptions are the exception: they are
+ * long-lived and do no database work after subscribing, so they give it back once their handler
+ * has returned.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public static final String OWNER_ROLE = "OWNER";
+    public static final String GUEST_ROLE = "GUEST";
+
+    public record Limits(double permitsPerSecond, int burst) {
+    }
+
+    private final Map<String, Limits> limitsByRole;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlFilter(
+            Limits ownerLimits,
+            Limits guestLimits,
+            int initialConcurrency,
+            int minConcurrency,
+            int maxConcurrency,
+            Duration targetStatementLatency,
+            Duration idleBucketExpiry,
+            MeterRegistry meterRegistry
+    ) {
+        this.limitsByRole = Map.of(OWNER_ROLE, ownerLimits, GUEST_ROLE, guestLimits);
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(
+                initialConcurrency, minConcurrency, maxConcurrency, targetStatementLatency);
+        this.buckets = Caffeine.newBuilder().expireAfterAccess(idleBucketExpiry).build();
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("admission.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive cap on requests in flight")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Admitted requests still in the filter chain")
+                .register(meterRegistry);
+        Gauge.builder("admission.buckets", buckets, Cache::estimatedSize)
+                .description("Principals with a live rate-limit bucket")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String role = roleOf(authentication);
+        Limits limits = limitsByRole.get(role);
+        TokenBucket bucket = buckets.get(role + ':' + authentication.getName(),
+                key -> new TokenBucket(limits.permitsPerSecond(), limits.burst()));
+        long waitNanos = bucket.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            reject(response, "rate", role, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            reject(response, "concurrency", role, 1);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted() && !isEventStream(response)) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+            } else {
+                concurrencyLimit.release(meanStatementMillis(request));
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    /**
+     * Holds the concurrency slot of a streaming response until the container completes it, since
+     * the body (and its database work) runs after the handler has returned.
+     */
+    private class ReleaseOnComplete implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                concurrencyLimit.release(meanStatementMillis((HttpServletRequest) event.getSuppliedRequest()));
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private void reject(HttpServletResponse response, String reason, String role, long retryAfterSeconds) {
+        meterRegistry.counter("admission.rejected", "reason", reason, "role", role).increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    }
+
+    private static String roleOf(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> ("ROLE_" + OWNER_ROLE).equals(authority.getAuthority()))
+                ? OWNER_ROLE
+                : GUEST_ROLE;
+    }
+
+    private static double meanStatementMillis(HttpServletRequest request) {
+        if (request.getAttribute(StatementBudgetInterceptor.STATEMENTS_ATTRIBUTE)
+                instanceof SqlStatementListener.RequestStatements statements && statements.count() > 0) {
+            return (double) statements.elapsedMillis() / statements.count();
+        }
+        return -1;
+    }
+}
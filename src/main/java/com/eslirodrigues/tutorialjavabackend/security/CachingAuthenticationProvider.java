@@ -0,0 +1,104 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Remembers credentials the delegate has already verified so repeated Basic-auth requests skip the
+ * BCrypt check. Entries are keyed by an HMAC of username and password under a per-process random key,
+ * so neither the password nor a reusable hash of it is ever stored.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final SecretKeySpec hmacKey;
+    private final Cache<CredentialKey, Authentication> verified;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration ttl, long maximumSize) {
+        this.delegate = delegate;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        CredentialKey key = new CredentialKey(authentication.getName(), digest(authentication.getName(), password));
+        Authentication cached = verified.getIfPresent(key);
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    cached.getPrincipal(), null, cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            verified.put(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    public void evict(String username) {
+        verified.asMap().keySet().removeIf(key -> key.username().equals(username));
+    }
+
+    public void evictAll() {
+        verified.invalidateAll();
+    }
+
+    Cache<?, ?> cache() {
+        return verified;
+    }
+
+    public CacheStats stats() {
+        return verified.stats();
+    }
+
+    public long estimatedSize() {
+        return verified.estimatedSize();
+    }
+
+    private ByteBuffer digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            byte[] usernameBytes = username.getBytes(StandardCharsets.UTF_8);
+            mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(usernameBytes.length).array());
+            mac.update(usernameBytes);
+            return ByteBuffer.wrap(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " is not available", e);
+        }
+    }
+
+    private record CredentialKey(String username, ByteBuffer digest) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Keeps tokens the delegate has already verified and validated until they expire, so a bearer
+ * token presented on every request is only checked once.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<ByteBuffer, Jwt> validated;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize) {
+        this(delegate, maximumSize, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.validated = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((ByteBuffer key, Jwt jwt) -> timeToLive(jwt)))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        ByteBuffer key = digest(token);
+        Jwt cached = validated.getIfPresent(key);
+        if (cached != null && cached.getTokenValue().equals(token) && !isExpired(cached)) {
+            return cached;
+        }
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && !isExpired(jwt)) {
+            validated.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    Cache<?, ?> cache() {
+        return validated;
+    }
+
+    public CacheStats stats() {
+        return validated.stats();
+    }
+
+    public long estimatedSize() {
+        return validated.estimatedSize();
+    }
+
+    private boolean isExpired(Jwt jwt) {
+        return !clock.instant().isBefore(jwt.getExpiresAt());
+    }
+
+    private Duration timeToLive(Jwt jwt) {
+        Duration ttl = Duration.between(clock.instant(), jwt.getExpiresAt());
+        return ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.eslirodrigues.tutorialjavabackend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.convert.converter.Converter;
@@ -10,16 +12,29 @@ import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class KeycloakRoleConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
 
     private static final Logger log = LoggerFactory.getLogger(KeycloakRoleConverter.class);
 
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private final Cache<Jwt, Collection<GrantedAuthority>> convertedByToken = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(10_000)
+            .build();
+
     @Override
-    @SuppressWarnings("unchecked")
     public Collection<GrantedAuthority> convert(@NonNull Jwt jwt) {
+        return convertedByToken.get(jwt, this::extractAuthorities);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<GrantedAuthority> extractAuthorities(Jwt jwt) {
         log.debug("Starting role conversion for JWT with claims: {}", jwt.getClaims());
 
         Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
@@ -36,15 +51,11 @@ public class KeycloakRoleConverter implements Converter<Jwt, Collection<GrantedA
             return Collections.emptyList();
         }
 
-        log.debug("Found roles in token: {}", roles);
-
-        Collection<GrantedAuthority> authorities = roles.stream()
-                .map(roleName -> "ROLE_" + roleName)
-                .peek(authorityName -> log.debug("Mapping role to authority: {}", authorityName))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(roleName -> AUTHORITIES.computeIfAbsent("ROLE_" + roleName, SimpleGrantedAuthority::new))
+                .toList();
 
-        log.info("Successfully granted authorities: {}", authorities);
+        log.debug("Granted authorities {} for roles {}", authorities, roles);
         return authorities;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+public class ObservableInMemoryUserDetailsManager extends InMemoryUserDetailsManager {
+
+    private final List<Consumer<String>> userChangeListeners = new CopyOnWriteArrayList<>();
+
+    public ObservableInMemoryUserDetailsManager(UserDetails... users) {
+        for (UserDetails user : users) {
+            createUser(user);
+        }
+    }
+
+    public void onUserChanged(Consumer<String> listener) {
+        userChangeListeners.add(listener);
+    }
+
+    @Override
+    public void createUser(UserDetails user) {
+        super.createUser(user);
+        userChanged(user.getUsername());
+    }
+
+    @Override
+    public void updateUser(UserDetails user) {
+        super.updateUser(user);
+        userChanged(user.getUsername());
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        super.deleteUser(username);
+        userChanged(username);
+    }
+
+    @Override
+    public void changePassword(String oldPassword, String newPassword) {
+        Authentication currentUser = SecurityContextHolder.getContext().getAuthentication();
+        super.changePassword(oldPassword, newPassword);
+        userChanged(currentUser.getName());
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetails updated = super.updatePassword(user, newPassword);
+        userChanged(user.getUsername());
+        return updated;
+    }
+
+    private void userChanged(String username) {
+        userChangeListeners.forEach(listener -> listener.accept(username));
+    }
+}
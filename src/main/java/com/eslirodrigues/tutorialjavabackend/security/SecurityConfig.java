@@ -1,11 +1,24 @@
 package com.eslirodrigues.tutorialjavabackend.security;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
 import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
 import org.springframework.security.config.Customizer;
@@ -15,14 +28,14 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -33,6 +46,10 @@ import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.core.OAuth2Error;
 import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
 
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -43,6 +60,8 @@ public class SecurityConfig {
 
     private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${BASIC_DB_USERNAME}")
     private String ownerUsername;
 
@@ -58,6 +77,40 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${app.admission.enabled:true}")
+    private boolean admissionEnabled;
+
+    @Value("${app.admission.owner.permits-per-second:50}")
+    private double ownerPermitsPerSecond;
+
+    @Value("${app.admission.owner.burst:100}")
+    private int ownerBurst;
+
+    @Value("${app.admission.guest.permits-per-second:5}")
+    private double guestPermitsPerSecond;
+
+    @Value("${app.admission.guest.burst:10}")
+    private int guestBurst;
+
+    @Value("${app.admission.concurrency.initial:100}")
+    private int initialConcurrency;
+
+    @Value("${app.admission.concurrency.min:10}")
+    private int minConcurrency;
+
+    @Value("${app.admission.concurrency.max:200}")
+    private int maxConcurrency;
+
+    @Value("${app.admission.concurrency.target-statement-latency:50ms}")
+    private Duration targetStatementLatency;
+
+    @Value("${app.admission.idle-bucket-expiry:10m}")
+    private Duration idleBucketExpiry;
+
+    public SecurityConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean
     SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         log.info("Configuring SecurityFilterChain...");
@@ -68,7 +121,9 @@ public class SecurityConfig {
 
         http.authorizeHttpRequests(requests -> requests
 //                        .requestMatchers("/h2-console/**").permitAll()
-                        .requestMatchers("/members/**").hasRole("OWNER")
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        .requestMatchers("/members/**", "/reactive/members/**").hasRole("OWNER")
+                        .requestMatchers("/cache/**", "/actuator/**").hasRole("OWNER")
                         .anyRequest().authenticated()
                 )
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -78,6 +133,19 @@ public class SecurityConfig {
                 )
                 .csrf(AbstractHttpConfigurer::disable)
                 .headers(headers -> headers.frameOptions(HeadersConfigurer.FrameOptionsConfig::sameOrigin));
+        if (admissionEnabled) {
+            // Not a bean: Boot would also register it as a plain servlet filter ahead of authentication.
+            http.addFilterAfter(new AdmissionControlFilter(
+                    new AdmissionControlFilter.Limits(ownerPermitsPerSecond, ownerBurst),
+                    new AdmissionControlFilter.Limits(guestPermitsPerSecond, guestBurst),
+                    initialConcurrency,
+                    minConcurrency,
+                    maxConcurrency,
+                    targetStatementLatency,
+                    idleBucketExpiry,
+                    meterRegistry
+            ), AuthorizationFilter.class);
+        }
         return http.build();
     }
 
@@ -87,7 +155,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    UserDetailsService inMemoryUsers(PasswordEncoder passwordEncoder) {
+    ObservableInMemoryUserDetailsManager inMemoryUsers(PasswordEncoder passwordEncoder) {
         User.UserBuilder users = User.builder();
 
         UserDetails owner = users
@@ -102,13 +170,46 @@ public class SecurityConfig {
                 .roles("GUEST")
                 .build();
 
-        return new InMemoryUserDetailsManager(owner, guest);
+        return new ObservableInMemoryUserDetailsManager(owner, guest);
+    }
+
+    @Bean
+    CachingAuthenticationProvider cachingAuthenticationProvider(
+            ObservableInMemoryUserDetailsManager users,
+            PasswordEncoder passwordEncoder,
+            @Value("${app.security.credential-cache.ttl:5m}") Duration ttl,
+            @Value("${app.security.credential-cache.maximum-size:10000}") long maximumSize
+    ) {
+        DaoAuthenticationProvider verifier = new DaoAuthenticationProvider(passwordEncoder);
+        verifier.setUserDetailsService(users);
+        verifier.setUserDetailsPasswordService(users);
+
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(verifier, ttl, maximumSize);
+        users.onUserChanged(provider::evict);
+        return provider;
     }
 
     @Bean
-    JwtDecoder jwtDecoder() {
-        String jwkSetUri = "http://keycloak:8080/realms/tutorial-java-backend/protocol/openid-connect/certs";
-        NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
+    JwtDecoder jwtDecoder(
+            @Value("${app.security.jwt.jwk-set-uri:http://keycloak:8080/realms/tutorial-java-backend/protocol/openid-connect/certs}") URL jwkSetUri,
+            @Value("${app.security.jwt.jwk-set-location:}") String jwkSetLocation,
+            @Value("${app.security.jwt.jwk-set-refresh-ahead:30s}") Duration refreshAhead,
+            @Value("${app.security.jwt.jwk-set-outage-tolerance:1h}") Duration outageTolerance,
+            @Value("${app.security.jwt.cache.maximum-size:10000}") long maximumSize,
+            ResourceLoader resourceLoader
+    ) throws IOException, ParseException {
+        JWKSource<SecurityContext> jwkSource = StringUtils.hasText(jwkSetLocation)
+                ? new ImmutableJWKSet<>(JWKSet.load(resourceLoader.getResource(jwkSetLocation).getInputStream()))
+                : JWKSourceBuilder.<SecurityContext>create(jwkSetUri)
+                        .refreshAheadCache(refreshAhead.toMillis(), true)
+                        .outageTolerant(outageTolerance.toMillis())
+                        .build();
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
 
         OAuth2TokenValidator<Jwt> issuerValidator = jwt -> {
             List<String> allowedIssuers = List.of(
@@ -131,15 +232,27 @@ public class SecurityConfig {
                 new DelegatingOAuth2TokenValidator<>(timestampValidator, issuerValidator);
         jwtDecoder.setJwtValidator(delegatingValidator);
 
-        return jwtDecoder;
+        return new CachingJwtDecoder(jwtDecoder, maximumSize);
+    }
+
+    @Bean
+    MeterBinder securityCacheMetrics(CachingAuthenticationProvider credentialCache, JwtDecoder jwtDecoder) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, credentialCache.cache(), "credentials");
+            if (jwtDecoder instanceof CachingJwtDecoder cachingJwtDecoder) {
+                CaffeineCacheMetrics.monitor(registry, cachingJwtDecoder.cache(), "jwt");
+            }
+        };
     }
 
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(List.of(allowedOrigins));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Cache-Control"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList(
+                "Authorization", "Content-Type", "Cache-Control", "If-Match", "If-None-Match"));
+        configuration.setExposedHeaders(List.of("ETag"));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -150,6 +263,11 @@ public class SecurityConfig {
 
     @EventListener
     public void handleAuthenticationSuccess(AuthenticationSuccessEvent event) {
+        meterRegistry.counter("auth.attempts",
+                "outcome", "success",
+                "type", event.getAuthentication().getClass().getSimpleName(),
+                "reason", "none"
+        ).increment();
         log.info("✅ [Auth Success] User: '{}', Authorities: {}",
                 event.getAuthentication().getName(),
                 event.getAuthentication().getAuthorities());
@@ -157,6 +275,11 @@ public class SecurityConfig {
 
     @EventListener
     public void handleAuthenticationFailure(AbstractAuthenticationFailureEvent event) {
+        meterRegistry.counter("auth.attempts",
+                "outcome", "failure",
+                "type", event.getAuthentication().getClass().getSimpleName(),
+                "reason", event.getException().getClass().getSimpleName()
+        ).increment();
         log.warn("❌ [Auth Failure] User: '{}', Exception: {}",
                 event.getAuthentication().getName(),
                 event.getException().getMessage());
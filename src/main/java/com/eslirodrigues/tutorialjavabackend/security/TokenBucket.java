@@ -0,0 +1,43 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the generic cell rate
+ * algorithm): admitting a request pushes that time forward by one emission interval, and a request
+ * is refused while it lies more than the burst allowance ahead of now. That behaves exactly like a
+ * bucket of {@code burst} tokens refilled at {@code permitsPerSecond}, without a lock or a refill
+ * timer.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive and burst at least 1");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    /**
+     * Takes a token at {@code nowNanos} ({@link System#nanoTime()} scale). Returns {@code 0} when
+     * admitted, otherwise how many nanoseconds until the next token.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = Math.max(arrival, nowNanos);
+            long wait = start - burstToleranceNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
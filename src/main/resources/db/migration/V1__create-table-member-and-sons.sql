@@ -1,13 +1,13 @@
---CREATE TABLE IF NOT EXISTS member (
---    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
---    name VARCHAR(255) NOT NULL,
---    age INTEGER NOT NULL,
---    owner VARCHAR(255) NOT NULL,
---    deleted_date TIMESTAMP
---);
---
---CREATE TABLE IF NOT EXISTS member_sons (
---    member_id BIGINT NOT NULL,
---    sons VARCHAR(255),
---    CONSTRAINT fk_member FOREIGN KEY (member_id) REFERENCES member(id)
---);
\ No newline at end of file
+CREATE TABLE IF NOT EXISTS member (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    age INTEGER NOT NULL,
+    owner VARCHAR(255) NOT NULL,
+    deleted_date TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS member_sons (
+    member_id BIGINT NOT NULL,
+    sons VARCHAR(255),
+    CONSTRAINT fk_member FOREIGN KEY (member_id) REFERENCES member(id)
+);
@@ -0,0 +1,7 @@
+CREATE INDEX IF NOT EXISTS idx_member_owner_age_id ON member (owner, age, id);
+
+CREATE INDEX IF NOT EXISTS idx_member_owner_lower_name ON member (owner, lower(name) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS idx_member_sons_sons_member_id ON member_sons (sons, member_id);
+
+CREATE INDEX IF NOT EXISTS idx_member_sons_member_id ON member_sons (member_id);
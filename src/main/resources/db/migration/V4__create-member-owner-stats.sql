@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS member_owner_stats (
+    owner VARCHAR(255) PRIMARY KEY,
+    members BIGINT NOT NULL
+);
+
+INSERT INTO member_owner_stats (owner, members)
+SELECT owner, count(*) FROM member WHERE deleted_date IS NULL GROUP BY owner
+ON CONFLICT (owner) DO NOTHING;
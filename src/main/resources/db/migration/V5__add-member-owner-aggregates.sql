@@ -0,0 +1,35 @@
+ALTER TABLE member_owner_stats ADD COLUMN IF NOT EXISTS age_sum BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE member_owner_stats ADD COLUMN IF NOT EXISTS sons_sum BIGINT DEFAULT 0 NOT NULL;
+
+CREATE TABLE IF NOT EXISTS member_owner_histogram (
+    owner VARCHAR(255) NOT NULL,
+    dimension VARCHAR(16) NOT NULL,
+    bucket INTEGER NOT NULL,
+    members BIGINT NOT NULL,
+    PRIMARY KEY (owner, dimension, bucket)
+);
+
+CREATE TEMPORARY TABLE counted_member ON COMMIT DROP AS
+SELECT m.owner,
+       m.age,
+       (SELECT count(*) FROM member_sons s WHERE s.member_id = m.id) AS sons
+FROM member m
+WHERE m.deleted_date IS NULL;
+
+UPDATE member_owner_stats t
+SET age_sum = c.age_sum, sons_sum = c.sons_sum
+FROM (SELECT owner, coalesce(sum(age), 0) AS age_sum, sum(sons) AS sons_sum
+      FROM counted_member GROUP BY owner) c
+WHERE t.owner = c.owner;
+
+INSERT INTO member_owner_histogram (owner, dimension, bucket, members)
+SELECT owner, 'AGE', CAST(floor(age / 10.0) AS INTEGER) * 10, count(*)
+FROM counted_member WHERE age IS NOT NULL
+GROUP BY owner, CAST(floor(age / 10.0) AS INTEGER) * 10
+ON CONFLICT DO NOTHING;
+
+INSERT INTO member_owner_histogram (owner, dimension, bucket, members)
+SELECT owner, 'SONS', CAST(sons AS INTEGER), count(*)
+FROM counted_member
+GROUP BY owner, sons
+ON CONFLICT DO NOTHING;
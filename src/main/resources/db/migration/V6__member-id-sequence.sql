@@ -0,0 +1,9 @@
+-- Hibernate cannot batch inserts into an IDENTITY column, so ids now come from a sequence
+-- handed out in blocks of 50 (pooled-lo). The column default keeps plain SQL inserts working.
+CREATE SEQUENCE IF NOT EXISTS member_seq INCREMENT BY 50;
+
+SELECT setval('member_seq', (SELECT coalesce(max(id), 0) + 1 FROM member), false);
+
+ALTER TABLE member ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE member ALTER COLUMN id SET DEFAULT nextval('member_seq');
+ALTER SEQUENCE member_seq OWNED BY member.id;
@@ -0,0 +1,2 @@
+-- Backs the purge job's "deleted_date < :cutoff" scan. Only soft-deleted rows are indexed.
+CREATE INDEX IF NOT EXISTS idx_member_deleted_date ON member (deleted_date) WHERE deleted_date IS NOT NULL;
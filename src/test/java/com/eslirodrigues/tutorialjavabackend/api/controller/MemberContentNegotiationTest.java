@@ -0,0 +1,118 @@
+package com.eslirodrigues.tutorialjavabackend.api.controller;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberResponse;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql("/data.sql")
+@ActiveProfiles("test")
+class MemberContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${BASIC_DB_USERNAME}")
+    private String ownerUsername;
+
+    @Value("${BASIC_DB_PASSWORD}")
+    private String ownerPassword;
+
+    @Test
+    void shouldListMembersAsCbor() throws IOException {
+        ResponseEntity<byte[]> response = get("/members", MediaType.APPLICATION_CBOR, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        List<MemberResponse> members = readMembers(new CBORMapper(), response.getBody());
+        assertThat(members).extracting(MemberResponse::name).containsExactly("esli");
+        assertThat(members.getFirst().sons()).containsExactlyInAnyOrder("Lucas", "Ana");
+    }
+
+    @Test
+    void shouldCreateAMemberFromASmileBody() throws IOException {
+        Member newMember = new Member(null, "carl", 20, "esli", List.of("ChildA"), null);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(SMILE);
+        ResponseEntity<Void> created = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members", HttpMethod.POST,
+                        new HttpEntity<>(new SmileMapper().writeValueAsBytes(newMember), headers), Void.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        URI location = created.getHeaders().getLocation();
+        ResponseEntity<byte[]> response = get(location.getPath(), SMILE, null);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(SMILE);
+        MemberResponse member = new SmileMapper().readValue(response.getBody(), MemberResponse.class);
+        assertThat(member.name()).isEqualTo("carl");
+        assertThat(member.sons()).containsExactly("ChildA");
+    }
+
+    @Test
+    void shouldGzipLargeResponsesOnlyWhenAskedTo() throws IOException {
+        for (int i = 0; i < 40; i++) {
+            jdbcTemplate.update("insert into member(name, age, owner) values (?, ?, 'esli')", "member-" + i, 20 + i);
+        }
+
+        ResponseEntity<byte[]> plain = get("/members?size=50", MediaType.APPLICATION_JSON, null);
+        assertThat(plain.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+
+        ResponseEntity<byte[]> gzipped = get("/members?size=50", MediaType.APPLICATION_JSON, "gzip");
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getBody().length).isLessThan(plain.getBody().length);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            List<String> names = JsonPath.parse(json).read("$[*].name");
+            assertThat(names).hasSize(41);
+        }
+
+        ResponseEntity<byte[]> small = get("/members/1", MediaType.APPLICATION_JSON, "gzip");
+        assertThat(small.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+    }
+
+    private ResponseEntity<byte[]> get(String path, MediaType accept, String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(accept));
+        if (acceptEncoding != null) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange(path, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+
+    private static List<MemberResponse> readMembers(ObjectMapper mapper, byte[] body) throws IOException {
+        return mapper.readValue(body, new TypeReference<>() {
+        });
+    }
+}
@@ -1,20 +1,37 @@
 package com.eslirodrigues.tutorialjavabackend.api.controller;
 
 import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.config.SqlStatementListener;
+import com.eslirodrigues.tutorialjavabackend.support.SqlStatements;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 
 import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -27,6 +44,21 @@ class MemberControllerTest {
     @Autowired
     TestRestTemplate restTemplate;
 
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    SqlStatementListener sqlStatementListener;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @LocalServerPort
+    int port;
+
     @Value("${BASIC_DB_USERNAME}")
     private String ownerUsername;
 
@@ -73,12 +105,392 @@ class MemberControllerTest {
 
         DocumentContext json = JsonPath.parse(response.getBody());
         List<String> names = json.read("$[*].name");
-        assertThat(names).containsExactlyInAnyOrder("esli", "alice");
+        assertThat(names).containsExactly("esli");
 
         List<String> owners = json.read("[*].owner");
         assertThat(owners).allMatch(own -> own.equals("esli"));
     }
 
+    @Test
+    void shouldLoadAMemberAndItsSonsInTwoStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/1", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        List<String> sons = JsonPath.parse(response.getBody()).read("$.sons");
+        assertThat(sons).containsExactlyInAnyOrder("Lucas", "Ana");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldLoadAPageOfMembersAndTheirSonsInTwoStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members?page=0&size=10", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        List<String> sons = JsonPath.parse(response.getBody()).read("$[*].sons[*]");
+        assertThat(sons).containsExactlyInAnyOrder("Lucas", "Ana");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldStayWithinTheStatementBudgetWhenListingMembers() {
+        ResponseEntity<String> response = SqlStatements.assertAtMost(sqlStatementListener, 2, () -> restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members", String.class));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldLinkToTheNextSliceWithoutCountingMembers() {
+        jdbcTemplate.update("insert into member(name, age, owner, deleted_date) values ('carl', 20, 'esli', null)");
+
+        ResponseEntity<String> response = SqlStatements.assertAtMost(sqlStatementListener, 2, () -> restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members?page=0&size=1", String.class));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<String> names = JsonPath.parse(response.getBody()).read("$[*].name");
+        assertThat(names).containsExactly("carl");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.LINK)).endsWith("/members?page=1&size=1>; rel=\"next\"");
+
+        response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members?page=1&size=1", String.class);
+        names = JsonPath.parse(response.getBody()).read("$[*].name");
+        assertThat(names).containsExactly("esli");
+        assertThat(response.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldKeepTheOwnerCountInStepWithCreatesUpdatesAndDeletes() {
+        assertThat(countMembers()).isEqualTo(1);
+
+        Member newMember = new Member(null, "carl", 20, "esli", List.of(), null);
+        URI location = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .postForEntity("/members", newMember, Void.class)
+                .getHeaders().getLocation();
+        assertThat(countMembers()).isEqualTo(2);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange(location, HttpMethod.PATCH,
+                        new HttpEntity<>("{\"deletedDate\": \"2999-01-01 00:00:00\"}", headers), Void.class);
+        assertThat(countMembers()).isEqualTo(1);
+
+        Member revived = new Member(null, "carl", 21, "esli", List.of(), null);
+        restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange(location, HttpMethod.PUT, new HttpEntity<>(revived), Void.class);
+        assertThat(countMembers()).isEqualTo(2);
+
+        restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange(location, HttpMethod.DELETE, null, Void.class);
+        restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange(location, HttpMethod.DELETE, null, Void.class);
+        assertThat(countMembers()).isEqualTo(1);
+
+        Long counted = jdbcTemplate.queryForObject(
+                "select count(*) from member where owner = 'esli' and deleted_date is null", Long.class);
+        assertThat(countMembers()).isEqualTo(counted);
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldServeOwnerStatsFromTheAggregatesAsMembersChange() {
+        ResponseEntity<String> response = SqlStatements.assertAtMost(sqlStatementListener, 2, () -> restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/stats", String.class));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext json = JsonPath.parse(response.getBody());
+        assertThat(json.read("$.members", Long.class)).isEqualTo(1);
+        assertThat(json.read("$.averageAge", Double.class)).isEqualTo(30.0);
+        assertThat(json.read("$.averageSons", Double.class)).isEqualTo(2.0);
+        assertThat(json.read("$.ages[0].minAge", Integer.class)).isEqualTo(30);
+        assertThat(json.read("$.ages[0].maxAge", Integer.class)).isEqualTo(39);
+
+        Member newMember = new Member(null, "carl", 24, "esli", List.of(), null);
+        URI location = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .postForEntity("/members", newMember, Void.class)
+                .getHeaders().getLocation();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/merge-patch+json"));
+        restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange(location, HttpMethod.PATCH,
+                        new HttpEntity<>("{\"age\": 36, \"sons\": [\"Zoe\", \"Max\", \"Leo\"]}", headers), Void.class);
+
+        json = JsonPath.parse(restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/stats", String.class)
+                .getBody());
+        assertThat(json.read("$.members", Long.class)).isEqualTo(2);
+        assertThat(json.read("$.averageAge", Double.class)).isEqualTo(33.0);
+        assertThat(json.read("$.averageSons", Double.class)).isEqualTo(2.5);
+        List<Integer> ageBuckets = json.read("$.ages[*].minAge");
+        List<Integer> ageCounts = json.read("$.ages[*].members");
+        assertThat(ageBuckets).containsExactly(30);
+        assertThat(ageCounts).containsExactly(2);
+        List<Integer> sonsBuckets = json.read("$.sons[*].sons");
+        assertThat(sonsBuckets).containsExactly(2, 3);
+
+        restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.DELETE, null, Void.class);
+
+        json = JsonPath.parse(restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/stats", String.class)
+                .getBody());
+        assertThat(json.read("$.members", Long.class)).isEqualTo(1);
+        assertThat(json.read("$.averageAge", Double.class)).isEqualTo(36.0);
+        sonsBuckets = json.read("$.sons[*].sons");
+        assertThat(sonsBuckets).containsExactly(3);
+        Long sons = jdbcTemplate.queryForObject("""
+                select count(*) from member_sons s join member m on m.id = s.member_id
+                where m.owner = 'esli' and m.deleted_date is null
+                """, Long.class);
+        assertThat(sons).isEqualTo(3);
+    }
+
+    private long countMembers() {
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/count", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return JsonPath.parse(response.getBody()).read("$.members", Long.class);
+    }
+
+    @Test
+    void shouldWalkAllMembersForOwnerWithACursor() {
+        Member newMember = new Member(null, "carl", 20, "esli", List.of(), null);
+        restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .postForEntity("/members", newMember, Void.class);
+
+        ResponseEntity<String> firstResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members?cursor=&size=1", String.class);
+        assertThat(firstResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        DocumentContext firstPage = JsonPath.parse(firstResponse.getBody());
+        List<String> firstNames = firstPage.read("$.content[*].name");
+        assertThat(firstNames).containsExactly("carl");
+        String next = firstPage.read("$.next");
+        assertThat(next).isNotBlank();
+
+        ResponseEntity<String> secondResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members?cursor=" + next + "&size=1", String.class);
+        assertThat(secondResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        DocumentContext secondPage = JsonPath.parse(secondResponse.getBody());
+        List<String> secondNames = secondPage.read("$.content[*].name");
+        assertThat(secondNames).containsExactly("esli");
+        String last = secondPage.read("$.next");
+        assertThat(last).isNull();
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldPageThroughMembersWithoutAnAgeLast() {
+        jdbcTemplate.update("insert into member(name, age, owner, version) values ('dora', 40, 'esli', 0)");
+        jdbcTemplate.update("insert into member(name, age, owner, version) values ('nameless', null, 'esli', 0)");
+        jdbcTemplate.update("insert into member(name, age, owner, version) values ('ageless', null, 'esli', 0)");
+
+        for (String path : List.of("/members?size=1&cursor=", "/members/search?size=1&cursor=")) {
+            List<String> names = new ArrayList<>();
+            String cursor = "";
+            do {
+                ResponseEntity<String> response = restTemplate
+                        .withBasicAuth(ownerUsername, ownerPassword)
+                        .getForEntity(path + cursor, String.class);
+                assertThat(response.getStatusCode()).as(path).isEqualTo(HttpStatus.OK);
+                DocumentContext page = JsonPath.parse(response.getBody());
+                names.addAll(page.read("$.content[*].name"));
+                cursor = page.read("$.next");
+            } while (cursor != null);
+            assertThat(names).as(path).containsExactly("esli", "dora", "nameless", "ageless");
+        }
+    }
+
+    @Test
+    void shouldRejectAMalformedCursor() {
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members?cursor=not-a-cursor", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldSearchMembersByNamePrefixAndAgeRange() {
+        jdbcTemplate.update("insert into member(name, age, owner, version) values ('Esther', 52, 'esli', 0)");
+        jdbcTemplate.update("insert into member(name, age, owner, version) values ('Eslin', 12, 'esli', 0)");
+        jdbcTemplate.update("insert into member(name, age, owner, version) values ('esli', 30, 'bill', 0)");
+
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/search?name=ES&minAge=18&maxAge=60", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        DocumentContext documentContext = JsonPath.parse(response.getBody());
+        List<String> names = documentContext.read("$.content[*].name");
+        assertThat(names).containsExactly("esli", "Esther");
+        List<String> sons = documentContext.read("$.content[0].sons");
+        assertThat(sons).containsExactlyInAnyOrder("Lucas", "Ana");
+    }
+
+    @Test
+    void shouldSearchMembersBySonAndDeletedDate() {
+        jdbcTemplate.update("insert into member(name, age, owner, deleted_date, version) values ('carl', 20, 'esli', '2999-01-01 00:00:00', 0)");
+
+        ResponseEntity<String> bySon = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/search?son=Ana", String.class);
+        List<String> withAna = JsonPath.parse(bySon.getBody()).read("$.content[*].name");
+        assertThat(withAna).containsExactly("esli");
+
+        ResponseEntity<String> scheduled = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/search?deleted=true&deletedAfter=2030-01-01 00:00:00", String.class);
+        List<String> scheduledNames = JsonPath.parse(scheduled.getBody()).read("$.content[*].name");
+        assertThat(scheduledNames).containsExactly("carl");
+    }
+
+    @Test
+    void shouldTreatLikeWildcardsInTheNamePrefixLiterally() {
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/search?name=_", String.class);
+        List<String> names = JsonPath.parse(response.getBody()).read("$.content[*].name");
+        assertThat(names).isEmpty();
+    }
+
+    @Test
+    void shouldPageSearchResultsWithACursor() {
+        jdbcTemplate.update("insert into member(name, age, owner, version) values ('carl', 20, 'esli', 0)");
+
+        ResponseEntity<String> firstResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/search?size=1", String.class);
+        DocumentContext firstPage = JsonPath.parse(firstResponse.getBody());
+        assertThat(firstPage.read("$.content[*].name", List.class)).containsExactly("carl");
+
+        String next = firstPage.read("$.next");
+        ResponseEntity<String> secondResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/search?size=1&cursor=" + next, String.class);
+        assertThat(JsonPath.parse(secondResponse.getBody()).read("$.content[*].name", List.class)).containsExactly("esli");
+    }
+
+    @Test
+    void shouldRejectAnInvertedAgeRange() {
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/search?minAge=40&maxAge=20", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldExportAllMembersForOwnerAsNdjson() {
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/export", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(1);
+        assertThat(lines).allSatisfy(line -> {
+            DocumentContext json = JsonPath.parse(line);
+            String owner = json.read("$.owner");
+            assertThat(owner).isEqualTo("esli");
+        });
+        String firstSon = JsonPath.parse(lines.getFirst()).read("$.sons[0]");
+        assertThat(firstSon).isEqualTo("Lucas");
+    }
+
+    @Test
+    @DirtiesContext
+    void shouldExportSonsWithoutAQueryPerMember() {
+        for (int i = 0; i < 3; i++) {
+            Long id = jdbcTemplate.queryForObject("select next value for member_seq", Long.class);
+            jdbcTemplate.update("insert into member(id, name, age, owner, version) values (?, ?, 20, 'esli', 0)", id, "export-" + i);
+            jdbcTemplate.update("insert into member_sons(member_id, sons) values (?, ?)", id, "son-" + i);
+        }
+
+        ResponseEntity<String> response = SqlStatements.assertAtMost(sqlStatementListener, 2, () -> restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/export", String.class));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(4);
+        List<String> sons = lines.stream()
+                .map(line -> JsonPath.parse(line).<List<String>>read("$.sons"))
+                .flatMap(List::stream)
+                .toList();
+        assertThat(sons).containsExactly("Lucas", "Ana", "son-0", "son-1", "son-2");
+        assertThat(lines.getFirst()).doesNotContain("version");
+    }
+
+    @Test
+    void shouldStreamCommittedChangesToTheOwner() throws Exception {
+        String credentials = Base64.getEncoder()
+                .encodeToString((ownerUsername + ":" + ownerPassword).getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members/changes"))
+                .header(HttpHeaders.AUTHORIZATION, "Basic " + credentials)
+                .header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .build();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<Stream<String>> stream = client.send(request, HttpResponse.BodyHandlers.ofLines());
+            assertThat(stream.statusCode()).isEqualTo(200);
+            Iterator<String> lines = stream.body().iterator();
+            assertThat(lines.next()).isEqualTo(":subscribed");
+
+            Member newMember = new Member(null, "carl", 20, "esli", List.of(), null);
+            ResponseEntity<Void> created = restTemplate
+                    .withBasicAuth(ownerUsername, ownerPassword)
+                    .postForEntity("/members", newMember, Void.class);
+            assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            restTemplate.withBasicAuth(ownerUsername, ownerPassword).delete(created.getHeaders().getLocation());
+
+            List<String> events = Stream.generate(lines::next)
+                    .filter(line -> line.startsWith("event:"))
+                    .limit(2)
+                    .toList();
+            assertThat(events).containsExactly("event:created", "event:deleted");
+            assertThat(meterRegistry.get("admission.concurrency.in.flight").gauge().value()).isZero();
+            stream.body().close();
+        }
+    }
+
+    @Test
+    void shouldRejectAMalformedResumeToken() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Last-Event-ID", "yesterday");
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/changes", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
 
     @Test
     @DirtiesContext
@@ -137,6 +549,164 @@ class MemberControllerTest {
         assertThat(age).isEqualTo(99);
     }
 
+    @Test
+    void shouldNotUpdateAMemberWhoseDeletedDateHasPassed() {
+        Member updateMember = new Member(null, "alice", 26, "esli", List.of(), null);
+
+        ResponseEntity<Void> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/2", HttpMethod.PUT, new HttpEntity<>(updateMember), Void.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch("\"0\"");
+        ResponseEntity<Void> conditional = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/2", HttpMethod.PUT, new HttpEntity<>(updateMember, headers), Void.class);
+        assertThat(conditional.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+
+        Integer age = jdbcTemplate.queryForObject("select age from member where id = 2", Integer.class);
+        assertThat(age).isEqualTo(25);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForAnUnchangedMember() {
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/1", String.class);
+        String etag = response.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> conditionalResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(conditionalResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(conditionalResponse.getBody()).isNull();
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForAnUnchangedListUntilAMemberChanges() {
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members?page=0&size=10", String.class);
+        String etag = response.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> conditionalResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members?page=0&size=10", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(conditionalResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+
+        Member updateMember = new Member(null, "esli", 31, "esli", List.of("Lucas", "Ana"), null);
+        restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.PUT, new HttpEntity<>(updateMember), Void.class);
+
+        ResponseEntity<String> changedResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members?page=0&size=10", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(changedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changedResponse.getHeaders().getETag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void shouldUpdateAMemberOnlyWhenTheIfMatchVersionIsCurrent() {
+        String etag = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/1", String.class)
+                .getHeaders().getETag();
+        assertThat(etag).isEqualTo("W/\"0\"");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(etag);
+        Member updateMember = new Member(null, "esli", 77, "esli", List.of("Mia"), null);
+        ResponseEntity<Void> weakResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.PUT, new HttpEntity<>(updateMember, headers), Void.class);
+        assertThat(weakResponse.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        headers.setIfMatch("\"0\"");
+        ResponseEntity<Void> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.PUT, new HttpEntity<>(updateMember, headers), Void.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1\"");
+
+        ResponseEntity<Void> staleResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.PUT, new HttpEntity<>(updateMember, headers), Void.class);
+        assertThat(staleResponse.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        DocumentContext json = JsonPath.parse(restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/1", String.class)
+                .getBody());
+        Integer age = json.read("$.age");
+        List<String> sons = json.read("$.sons");
+        assertThat(age).isEqualTo(77);
+        assertThat(sons).containsExactly("Mia");
+    }
+
+    @Test
+    void shouldPatchOnlyTheFieldsThatWereSent() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/merge-patch+json"));
+        HttpEntity<String> request = new HttpEntity<>("""
+                {"age": 31, "sons": ["Ana", "Mia"]}
+                """, headers);
+        ResponseEntity<Void> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.PATCH, request, Void.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        DocumentContext json = JsonPath.parse(restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/1", String.class)
+                .getBody());
+        String name = json.read("$.name");
+        Integer age = json.read("$.age");
+        List<String> sons = json.read("$.sons");
+        assertThat(name).isEqualTo("esli");
+        assertThat(age).isEqualTo(31);
+        assertThat(sons).containsExactlyInAnyOrder("Ana", "Mia");
+    }
+
+    @Test
+    void shouldNotPatchAnotherOwnersMember() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/merge-patch+json"));
+        ResponseEntity<Void> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/3", HttpMethod.PATCH, new HttpEntity<>("{\"age\": 1}", headers), Void.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldRejectAPatchWithAnUnknownField() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/merge-patch+json"));
+        ResponseEntity<Void> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.PATCH, new HttpEntity<>("{\"nickname\": \"x\"}", headers), Void.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldRejectAPatchThatRemovesARequiredField() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/merge-patch+json"));
+        for (String body : List.of("{\"name\": null}", "{\"age\": null}")) {
+            ResponseEntity<Void> response = restTemplate
+                    .withBasicAuth(ownerUsername, ownerPassword)
+                    .exchange("/members/1", HttpMethod.PATCH, new HttpEntity<>(body, headers), Void.class);
+            assertThat(response.getStatusCode()).as(body).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @Test
     void shouldNotUpdateAMemberThatDoesNotExist() {
         Member unknownUser = new Member(null, "unknow", 60, "esli", List.of("UpdatedSon"), null);
@@ -161,6 +731,103 @@ class MemberControllerTest {
         assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void shouldSoftDeleteABatchOfMembersAndDecrementTheOwnerCount() {
+        ResponseEntity<String> deleteResponse = SqlStatements.assertAtMost(sqlStatementListener, 4, () -> restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members?ids=1,2,3", HttpMethod.DELETE, null, String.class));
+        assertThat(deleteResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        DocumentContext json = JsonPath.parse(deleteResponse.getBody());
+        Integer requested = json.read("$.requested");
+        Integer deleted = json.read("$.deleted");
+        assertThat(requested).isEqualTo(3);
+        assertThat(deleted).isEqualTo(1);
+        assertThat(countMembers()).isZero();
+
+        ResponseEntity<String> getResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/1", String.class);
+        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        Integer softDeletedRows = jdbcTemplate.queryForObject(
+                "select count(*) from member where id = 1 and deleted_date is not null", Integer.class);
+        assertThat(softDeletedRows).isEqualTo(1);
+        Integer otherOwnersRows = jdbcTemplate.queryForObject(
+                "select count(*) from member where id = 3 and deleted_date is null", Integer.class);
+        assertThat(otherOwnersRows).isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyAMixedBatchInOneRequest() {
+        ResponseEntity<String> createResponse = postBatch(List.of(
+                Map.of("op", "CREATE", "member", Map.of("name", "carl", "age", 20, "sons", List.of("Ana"))),
+                Map.of("op", "CREATE", "member", Map.of("name", "dora", "age", 50, "sons", List.of()))
+        ));
+        assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext created = JsonPath.parse(createResponse.getBody());
+        assertThat(created.read("$[*].status", List.class)).containsExactly(201, 201);
+        Long carlId = created.read("$[0].id", Long.class);
+        Long doraId = created.read("$[1].id", Long.class);
+        assertThat(countMembers()).isEqualTo(3);
+
+        ResponseEntity<String> response = postBatch(List.of(
+                Map.of("op", "UPDATE", "id", 1, "version", 0, "member", Map.of("name", "esli", "age", 31, "sons", List.of("Lucas"))),
+                Map.of("op", "UPDATE", "id", carlId, "version", 5, "member", Map.of("name", "carl", "age", 21, "sons", List.of())),
+                Map.of("op", "DELETE", "id", doraId),
+                Map.of("op", "DELETE", "id", 3),
+                Map.of("op", "UPDATE", "id", 1000, "member", Map.of("name", "nobody", "age", 1))
+        ));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext results = JsonPath.parse(response.getBody());
+        assertThat(results.read("$[*].status", List.class)).containsExactly(204, 412, 204, 404, 404);
+
+        DocumentContext esli = JsonPath.parse(restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/1", String.class)
+                .getBody());
+        assertThat(esli.read("$.age", Integer.class)).isEqualTo(31);
+        assertThat(esli.read("$.sons", List.class)).containsExactly("Lucas");
+        Long esliVersion = jdbcTemplate.queryForObject("select version from member where id = 1", Long.class);
+        assertThat(esliVersion).isEqualTo(1L);
+        Integer carlAge = jdbcTemplate.queryForObject("select age from member where id = ?", Integer.class, carlId);
+        assertThat(carlAge).isEqualTo(20);
+        Integer billsMembers = jdbcTemplate.queryForObject(
+                "select count(*) from member where id = 3 and deleted_date is null", Integer.class);
+        assertThat(billsMembers).isEqualTo(1);
+        assertThat(countMembers()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeepTheStatementCountOfABatchFlat() {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            operations.add(Map.of("op", "CREATE", "member", Map.of("name", "member-" + i, "age", 20 + i, "sons", List.of("son-" + i))));
+        }
+        operations.add(Map.of("op", "UPDATE", "id", 1, "member", Map.of("name", "esli", "age", 31, "sons", List.of("Lucas", "Ana"))));
+        operations.add(Map.of("op", "DELETE", "id", 1000));
+
+        ResponseEntity<String> response = SqlStatements.assertAtMost(sqlStatementListener, 12, () -> postBatch(operations));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(JsonPath.parse(response.getBody()).read("$[*].status", List.class)).hasSize(42);
+        assertThat(countMembers()).isEqualTo(41);
+    }
+
+    @Test
+    void shouldRejectAnInvalidBatch() {
+        assertThat(postBatch(List.of()).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(postBatch(List.of(Map.of("op", "DELETE"))).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(postBatch(List.of(Map.of("op", "DELETE", "id", 1), Map.of("op", "DELETE", "id", 1))).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(countMembers()).isEqualTo(1);
+    }
+
+    private ResponseEntity<String> postBatch(List<? extends Map<String, ?>> operations) {
+        return restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .postForEntity("/members/batch", operations, String.class);
+    }
+
     @Test
     void shouldNotDeleteAMemberThatDoesNotExist() {
         ResponseEntity<Void> deleteResponse = restTemplate
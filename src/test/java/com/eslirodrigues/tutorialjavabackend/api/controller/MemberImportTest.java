@@ -0,0 +1,149 @@
+package com.eslirodrigues.tutorialjavabackend.api.controller;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.members.import.chunk-size=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql("/data.sql")
+@ActiveProfiles("test")
+class MemberImportTest {
+
+    private static final String NDJSON = """
+            {"name":"carl","age":20,"sons":["Ana","Bia"]}
+            {"name":"dora","age":50}
+            {"name":"","age":1}
+
+            {"name":"erin","age":33,"deletedDate":"2999-01-01 00:00:00"}
+            not json
+            """;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${BASIC_DB_USERNAME}")
+    private String ownerUsername;
+
+    @Value("${BASIC_DB_PASSWORD}")
+    private String ownerPassword;
+
+    @Test
+    void shouldImportNdjsonInChunksAndReportRejectedRows() {
+        List<DocumentContext> progress = importBody(NDJSON, MediaType.APPLICATION_NDJSON, 0);
+
+        assertThat(progress).extracting(line -> line.read("$.committed", Long.class)).containsExactly(2L, 4L, 5L, 5L);
+        assertThat(progress.get(1).read("$.errors[0].row", Integer.class)).isEqualTo(3);
+        assertThat(progress.get(2).read("$.errors[0].row", Integer.class)).isEqualTo(5);
+        DocumentContext summary = progress.getLast();
+        assertThat(summary.read("$.done", Boolean.class)).isTrue();
+        assertThat(summary.read("$.imported", Long.class)).isEqualTo(3);
+        assertThat(summary.read("$.failed", Long.class)).isEqualTo(2);
+
+        List<String> sons = jdbcTemplate.queryForList(
+                "select s.sons from member_sons s join member m on m.id = s.member_id where m.name = 'carl' order by s.sons",
+                String.class);
+        assertThat(sons).containsExactly("Ana", "Bia");
+        Long members = jdbcTemplate.queryForObject("select members from member_owner_stats where owner = 'esli'", Long.class);
+        assertThat(members).isEqualTo(3);
+        Integer owned = jdbcTemplate.queryForObject(
+                "select count(*) from member where name in ('carl', 'dora', 'erin') and owner = 'esli'", Integer.class);
+        assertThat(owned).isEqualTo(3);
+    }
+
+    @Test
+    void shouldResumeFromTheCommittedOffset() {
+        List<DocumentContext> progress = importBody(NDJSON, MediaType.APPLICATION_NDJSON, 2);
+
+        DocumentContext summary = progress.getLast();
+        assertThat(summary.read("$.committed", Long.class)).isEqualTo(5);
+        assertThat(summary.read("$.imported", Long.class)).isEqualTo(1);
+        Integer skipped = jdbcTemplate.queryForObject(
+                "select count(*) from member where name in ('carl', 'dora')", Integer.class);
+        assertThat(skipped).isZero();
+    }
+
+    @Test
+    void shouldImportAnUploadedCsvFile() {
+        String csv = """
+                age,name,sons,deleted_date
+                20,"Smith, Carl","Ana|Bia",
+                abc,dora,,
+                41,"The \"\"Boss\"\"",,
+                """;
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        parts.add("file", new ByteArrayResource(csv.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "members.csv";
+            }
+        });
+
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .postForEntity("/members/import", parts, String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        DocumentContext summary = JsonPath.parse(response.getBody().lines().toList().getLast());
+        assertThat(summary.read("$.imported", Long.class)).isEqualTo(2);
+        assertThat(summary.read("$.failed", Long.class)).isEqualTo(1);
+        List<String> names = jdbcTemplate.queryForList(
+                "select name from member where owner = 'esli' and age in (20, 41) order by age", String.class);
+        assertThat(names).containsExactly("Smith, Carl", "The \"Boss\"");
+    }
+
+    @Test
+    void shouldRejectACsvWithoutAHeader() {
+        List<DocumentContext> progress = importBody("20,carl\n", MediaType.parseMediaType("text/csv"), 0);
+
+        assertThat(progress).hasSize(1);
+        assertThat(progress.getFirst().read("$.error", String.class)).contains("header");
+    }
+
+    @Test
+    void shouldReportAnOversizedLineAsARowError() {
+        String body = "{\"name\":\"carl\",\"age\":20}\r\n"
+                + "{\"name\":\"" + "x".repeat(70_000) + "\",\"age\":30}\r\n"
+                + "{\"name\":\"dora\",\"age\":50}";
+
+        List<DocumentContext> progress = importBody(body, MediaType.APPLICATION_NDJSON, 0);
+
+        assertThat(progress.getFirst().read("$.errors[0].row", Integer.class)).isEqualTo(2);
+        assertThat(progress.getFirst().read("$.errors[0].message", String.class)).contains("longer than");
+        DocumentContext summary = progress.getLast();
+        assertThat(summary.read("$.committed", Long.class)).isEqualTo(3);
+        assertThat(summary.read("$.imported", Long.class)).isEqualTo(2);
+        assertThat(summary.read("$.failed", Long.class)).isEqualTo(1);
+    }
+
+    private List<DocumentContext> importBody(String body, MediaType contentType, long offset) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/import?offset=" + offset, HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        return response.getBody().lines().map(JsonPath::parse).toList();
+    }
+}
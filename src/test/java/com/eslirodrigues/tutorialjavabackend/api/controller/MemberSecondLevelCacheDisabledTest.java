@@ -0,0 +1,47 @@
+package com.eslirodrigues.tutorialjavabackend.api.controller;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql("/data.sql")
+@ActiveProfiles("test")
+class MemberSecondLevelCacheDisabledTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Value("${BASIC_DB_USERNAME}")
+    private String ownerUsername;
+
+    @Value("${BASIC_DB_PASSWORD}")
+    private String ownerPassword;
+
+    @Test
+    void shouldNotBuildCacheRegionsWithoutTheCacheProfile() {
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/1", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        assertThat(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).isFalse();
+        assertThat(sessionFactory.getStatistics().getSecondLevelCacheRegionNames()).isEmpty();
+        assertThat(entityManagerFactory.getCache().contains(Member.class, 1L)).isFalse();
+    }
+}
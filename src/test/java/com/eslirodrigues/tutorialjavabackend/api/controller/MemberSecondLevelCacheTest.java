@@ -0,0 +1,163 @@
+package com.eslirodrigues.tutorialjavabackend.api.controller;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberRepository;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberBatchOperation;
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql("/data.sql")
+@ActiveProfiles({"test", "cache"})
+class MemberSecondLevelCacheTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Value("${BASIC_DB_USERNAME}")
+    private String ownerUsername;
+
+    @Value("${BASIC_DB_PASSWORD}")
+    private String ownerPassword;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void shouldServeARepeatedReadFromTheCache() {
+        assertThat(getMember(1).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        statistics.clear();
+        ResponseEntity<String> cachedResponse = getMember(1);
+        assertThat(cachedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        List<String> sons = JsonPath.parse(cachedResponse.getBody()).read("$.sons");
+        assertThat(sons).containsExactlyInAnyOrder("Lucas", "Ana");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(Member.CACHE_REGION).getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotServeAStaleMemberAfterAnUpdate() {
+        assertThat(getMember(1).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        Member updateMember = new Member(null, "esli", 99, "esli", List.of("UpdatedSon"), null);
+        ResponseEntity<Void> updateResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.PUT, new HttpEntity<>(updateMember), Void.class);
+        assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        DocumentContext json = JsonPath.parse(getMember(1).getBody());
+        Integer age = json.read("$.age");
+        List<String> sons = json.read("$.sons");
+        assertThat(age).isEqualTo(99);
+        assertThat(sons).containsExactly("UpdatedSon");
+    }
+
+    @Test
+    void shouldNotKeepARowCachedByAReaderThatRacedTheUpdate() {
+        Member update = new Member(null, "esli", 77, "esli", List.of("Lucas"), null);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            memberRepository.updateAllByOwnerAndVersion(ownerUsername,
+                    List.of(new MemberBatchOperation(MemberBatchOperation.Type.UPDATE, 1L, null, update)));
+            CompletableFuture.runAsync(() -> assertThat(getMember(1).getStatusCode()).isEqualTo(HttpStatus.OK)).join();
+        });
+
+        Integer age = JsonPath.parse(getMember(1).getBody()).read("$.age");
+        assertThat(age).isEqualTo(77);
+    }
+
+    @Test
+    void shouldNotServeAMemberAfterItIsDeleted() {
+        assertThat(getMember(1).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        ResponseEntity<Void> deleteResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/members/1", HttpMethod.DELETE, null, Void.class);
+        assertThat(deleteResponse.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+        assertThat(getMember(1).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldKeepOtherMembersCachedWhenAMemberIsCreated() {
+        assertThat(getMember(1).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        Member newMember = new Member(null, "carol", 20, "esli", List.of("Rui"), null);
+        ResponseEntity<Void> createResponse = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .postForEntity("/members", newMember, Void.class);
+        assertThat(createResponse.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+        assertServedFromCache(1);
+    }
+
+    @Test
+    void shouldNotServeACachedMemberToAnotherOwner() {
+        assertThat(getMember(3).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldExposeCacheStatistics() {
+        getMember(1);
+        getMember(1);
+
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/cache/statistics", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        DocumentContext json = JsonPath.parse(response.getBody());
+        List<String> regions = json.read("$[*].region");
+        assertThat(regions).containsExactly(Member.CACHE_REGION, Member.SONS_CACHE_REGION);
+        List<Number> hits = json.read("$[?(@.region == 'member')].hits");
+        assertThat(hits.getFirst().longValue()).isPositive();
+    }
+
+    private void assertServedFromCache(long id) {
+        statistics.clear();
+        assertThat(getMember(id).getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(Member.CACHE_REGION).getHitCount()).isEqualTo(1);
+    }
+
+    private ResponseEntity<String> getMember(long id) {
+        return restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/members/" + id, String.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.eslirodrigues.tutorialjavabackend.api.controller;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.sql.statement-budget.default=0"
+)
+@AutoConfigureObservability
+@Sql("/data.sql")
+@ActiveProfiles("test")
+class MetricsEndpointTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Value("${BASIC_DB_USERNAME}")
+    private String ownerUsername;
+
+    @Value("${BASIC_DB_PASSWORD}")
+    private String ownerPassword;
+
+    @Value("${BASIC_DB_GUESTNAME}")
+    private String guestUsername;
+
+    @Value("${BASIC_DB_GUESTPW}")
+    private String guestPassword;
+
+    @Test
+    void shouldExposeRequestRepositoryPoolHibernateAndAuthMetrics() {
+        restTemplate.withBasicAuth(ownerUsername, ownerPassword).getForEntity("/members/1", String.class);
+        restTemplate.withBasicAuth(ownerUsername, "wrong").getForEntity("/members/1", String.class);
+        restTemplate.withBasicAuth(ownerUsername, ownerPassword)
+                .postForEntity("/members", new Member(null, "carl", 20, "esli", List.of("Ana"), null), Void.class);
+
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/actuator/prometheus", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("http_server_requests_seconds_bucket{")
+                .contains("uri=\"/members/{id}\"")
+                .contains("spring_data_repository_invocations_seconds_bucket{")
+                .contains("hikaricp_connections_active")
+                .contains("hibernate_statements_total")
+                .contains("auth_attempts_total{")
+                .contains("outcome=\"failure\"")
+                .contains("cache_gets_total{")
+                .contains("cache=\"credentials\"")
+                .contains("http_server_requests_statements_count{")
+                .contains("sql_statement_budget_exceeded_total{");
+    }
+
+    @Test
+    void shouldNotExposeMetricsOrCacheStatisticsToGuests() {
+        ResponseEntity<String> metrics = restTemplate
+                .withBasicAuth(guestUsername, guestPassword)
+                .getForEntity("/actuator/prometheus", String.class);
+        ResponseEntity<String> cacheStatistics = restTemplate
+                .withBasicAuth(guestUsername, guestPassword)
+                .getForEntity("/cache/statistics", String.class);
+
+        assertThat(metrics.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(cacheStatistics.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void shouldNotRequireCredentialsForHealth() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/health", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+}
@@ -1,18 +1,45 @@
 package com.eslirodrigues.tutorialjavabackend.api.controller;
 
 import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerHistogram;
+import com.eslirodrigues.tutorialjavabackend.api.database.model.MemberOwnerStats;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberSonRow;
+import com.eslirodrigues.tutorialjavabackend.api.database.projection.MemberState;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberOwnerHistogramRepository;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberOwnerStatsRepository;
 import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberRepository;
+import com.eslirodrigues.tutorialjavabackend.api.dto.BulkDeleteResponse;
+import com.eslirodrigues.tutorialjavabackend.api.dto.CursorPage;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberCount;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberCursor;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberPatch;
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberResponse;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberChangeFeed;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberCommandService;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberExportService;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberImportService;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberIngestQueue;
+import com.eslirodrigues.tutorialjavabackend.api.service.MemberQueryService;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.data.domain.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.security.Principal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -20,49 +47,129 @@ import static org.mockito.Mockito.*;
 class MockitoMemberControllerTest {
 
     private MemberRepository memberRepository;
+    private MemberOwnerStatsRepository memberOwnerStatsRepository;
     private MemberController controller;
     private Principal principal;
 
     @BeforeEach
     void setUp() {
         memberRepository = mock(MemberRepository.class);
-        controller = new MemberController(memberRepository);
+        memberOwnerStatsRepository = mock(MemberOwnerStatsRepository.class);
+        controller = new MemberController(
+                memberRepository,
+                new MemberQueryService(memberRepository, memberOwnerStatsRepository,
+                        mock(MemberOwnerHistogramRepository.class)),
+                new MemberCommandService(memberRepository, memberOwnerStatsRepository, event -> { }),
+                mock(MemberExportService.class),
+                mock(MemberChangeFeed.class),
+                mock(MemberIngestQueue.class),
+                mock(MemberImportService.class)
+        );
         principal = () -> "esli";
     }
 
     @Test
     void shouldReturnAMemberById() {
-        Member member = new Member(1L, "esli", 30, "esli", List.of(), null);
-        when(memberRepository.findByIdAndOwner(1L, "esli")).thenReturn(member);
+        MemberRow row = new MemberRow(1L, "esli", 30, "esli", null, 0L);
+        when(memberRepository.findRowByIdAndOwner(1L, "esli")).thenReturn(Optional.of(row));
+        when(memberRepository.findSonsByMemberIdIn(Set.of(1L)))
+                .thenReturn(List.of(new MemberSonRow(1L, "Lucas")));
 
-        ResponseEntity<Member> response = controller.findMemberById(1L, principal);
+        ResponseEntity<MemberResponse> response = controller.findMemberById(1L, null, principal);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).usingRecursiveComparison().isEqualTo(member);
+        assertThat(response.getBody())
+                .isEqualTo(new MemberResponse(1L, "esli", 30, "esli", List.of("Lucas"), null, 0L));
     }
 
     @Test
     void shouldNotReturnAMemberWithUnknownId() {
-        when(memberRepository.findByIdAndOwner(1000L, "esli")).thenReturn(null);
+        when(memberRepository.findRowByIdAndOwner(1000L, "esli")).thenReturn(Optional.empty());
 
-        ResponseEntity<Member> response = controller.findMemberById(1000L, principal);
+        ResponseEntity<MemberResponse> response = controller.findMemberById(1000L, null, principal);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(response.getBody()).isNull();
+        verify(memberRepository, never()).findSonsByMemberIdIn(any());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedWithoutLoadingTheMember() {
+        when(memberRepository.findVersionByIdAndOwner(1L, "esli")).thenReturn(Optional.of(4L));
+
+        ResponseEntity<MemberResponse> response = controller.findMemberById(1L, "\"4\"", principal);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        verify(memberRepository, never()).findRowByIdAndOwner(anyLong(), anyString());
     }
 
     @Test
     void shouldReturnAllMembersForOwner() {
-        List<Member> members = List.of(
-                new Member(1L, "esli", 30, "esli", List.of("Lucas", "Ana"), null),
-                new Member(2L, "alice", 25, "esli", List.of(), null)
+        List<MemberRow> rows = List.of(
+                new MemberRow(2L, "alice", 25, "esli", null, 0L),
+                new MemberRow(1L, "esli", 30, "esli", null, 0L)
         );
-        Page<Member> page = new PageImpl<>(members);
-        when(memberRepository.findByOwner(eq("esli"), any(Pageable.class))).thenReturn(page);
-
         Pageable pageable = PageRequest.of(0, 10, Sort.by("age"));
-        ResponseEntity<List<Member>> response = controller.findAllMembersByOwner(pageable, principal);
+        when(memberRepository.findRowsByOwner(eq("esli"), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(rows, pageable, false));
+        when(memberRepository.findSonsByMemberIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+                new MemberSonRow(1L, "Lucas"),
+                new MemberSonRow(1L, "Ana")
+        ));
+
+        ResponseEntity<List<MemberResponse>> response = controller.findAllMembersByOwner(pageable, null, principal);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(
+                new MemberResponse(2L, "alice", 25, "esli", List.of(), null, 0L),
+                new MemberResponse(1L, "esli", 30, "esli", List.of("Lucas", "Ana"), null, 0L)
+        );
+        assertThat(response.getHeaders().containsKey(HttpHeaders.LINK)).isFalse();
+        verify(memberRepository, never()).count();
+    }
+
+    @Test
+    void shouldReturnTheOwnersMemberCountWithoutCountingRows() {
+        when(memberOwnerStatsRepository.findById("esli"))
+                .thenReturn(Optional.of(new MemberOwnerStats("esli", 7, 210, 7)));
+
+        ResponseEntity<MemberCount> response = controller.countMembersByOwner(principal);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new MemberCount(7));
+        verifyNoInteractions(memberRepository);
+    }
+
+    @Test
+    void shouldReturnTheNextCursorWhenMoreMembersExist() {
+        List<MemberRow> rows = List.of(
+                new MemberRow(2L, "alice", 25, "esli", null, 0L),
+                new MemberRow(1L, "esli", 30, "esli", null, 0L)
+        );
+        when(memberRepository.findRowsByOwnerFirst("esli", Limit.of(2))).thenReturn(rows);
+        when(memberRepository.findSonsByMemberIdIn(Set.of(2L))).thenReturn(List.of());
+
+        ResponseEntity<CursorPage<MemberResponse>> response =
+                controller.findMembersByOwnerAfterCursor("", 1, principal);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).containsExactlyElementsOf(members);
+        CursorPage<MemberResponse> page = Objects.requireNonNull(response.getBody());
+        assertThat(page.content()).extracting(MemberResponse::id).containsExactly(2L);
+        assertThat(MemberCursor.decode(page.next())).isEqualTo(new MemberCursor(25, 2L));
+    }
+
+    @Test
+    void shouldSeekPastTheCursor() {
+        String cursor = new MemberCursor(25, 2L).encode();
+        MemberRow row = new MemberRow(1L, "esli", 30, "esli", null, 0L);
+        when(memberRepository.findRowsByOwnerAfter("esli", 25, 2L, Limit.of(11))).thenReturn(List.of(row));
+        when(memberRepository.findSonsByMemberIdIn(Set.of(1L))).thenReturn(List.of());
+
+        ResponseEntity<CursorPage<MemberResponse>> response =
+                controller.findMembersByOwnerAfterCursor(cursor, 10, principal);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        CursorPage<MemberResponse> page = Objects.requireNonNull(response.getBody());
+        assertThat(page.content()).extracting(MemberResponse::id).containsExactly(1L);
+        assertThat(page.next()).isNull();
+        verify(memberRepository, never()).findRowsByOwner(anyString(), any(Pageable.class));
     }
 
     @Test
@@ -72,7 +179,7 @@ class MockitoMemberControllerTest {
         UriComponentsBuilder ucb = UriComponentsBuilder.fromPath("");
         when(memberRepository.save(any())).thenReturn(newMemberSaved);
 
-        ResponseEntity<Void> response = controller.createMember(newMember, ucb, principal);
+        ResponseEntity<Void> response = controller.createMember(newMember, ucb, principal).join();
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
         assertThat(Objects.requireNonNull(response.getHeaders().getLocation()).toString())
@@ -85,49 +192,147 @@ class MockitoMemberControllerTest {
         assertThat(newMemberCaptured.getOwner()).isEqualTo("esli");
         assertThat(newMemberCaptured.getAge()).isEqualTo(20);
         assertThat(newMemberCaptured.getSons()).containsExactly("ChildA", "ChildB");
+        verify(memberOwnerStatsRepository).apply(eq("esli"), argThat(delta -> delta.getMembers() == 1
+                && delta.getAgeSum() == 20 && delta.getSonsSum() == 2));
     }
 
     @Test
     void shouldUpdateAnExistingMember() {
         Member update = new Member(null, "esli", 99, "esli", List.of("UpdatedSon"), null);
         Member existing = new Member(1L, "esli", 10, "esli", List.of("SomeSon"), null);
+        when(memberRepository.lockStateByIdAndOwner(1L, "esli"))
+                .thenReturn(Optional.of(new MemberState(1L, 10, null, 1)));
         when(memberRepository.findByIdAndOwner(1L, "esli")).thenReturn(existing);
 
-        ResponseEntity<Void> response = controller.updateMember(1L, update, principal);
+        ResponseEntity<Void> response = controller.updateMember(1L, update, null, principal);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
-        verify(memberRepository).save(argThat(updated ->
+        InOrder inOrder = inOrder(memberRepository);
+        inOrder.verify(memberRepository).lockStateByIdAndOwner(1L, "esli");
+        inOrder.verify(memberRepository).findByIdAndOwner(1L, "esli");
+        inOrder.verify(memberRepository).save(argThat(updated ->
                 updated.getId().equals(1L)
                         && updated.getAge().equals(99)
                         && updated.getSons().contains("UpdatedSon")
                         && updated.getName().equals("esli")
         ));
+        verify(memberOwnerStatsRepository).apply(eq("esli"), argThat(delta -> delta.getMembers() == 0
+                && delta.getAgeSum() == 89 && delta.getSonsSum() == 0));
+    }
+
+    @Test
+    void shouldUpdateAMemberWithASingleVersionedStatement() {
+        Member update = new Member(null, "esli", 99, "esli", List.of("UpdatedSon"), null);
+        when(memberRepository.lockStateByIdAndOwner(1L, "esli"))
+                .thenReturn(Optional.of(new MemberState(1L, 30, null, 1)));
+        when(memberRepository.updateByIdAndOwnerAndVersion(1L, "esli", 3L, update)).thenReturn(1);
+
+        ResponseEntity<Void> response = controller.updateMember(1L, update, "\"3\"", principal);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"4\"");
+        verify(memberRepository, never()).findByIdAndOwner(anyLong(), anyString());
+        verify(memberRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectAnUpdateWithAStaleVersion() {
+        Member update = new Member(null, "esli", 99, "esli", List.of("UpdatedSon"), null);
+        when(memberRepository.lockStateByIdAndOwner(1L, "esli"))
+                .thenReturn(Optional.of(new MemberState(1L, 30, null, 1)));
+        when(memberRepository.updateByIdAndOwnerAndVersion(1L, "esli", 2L, update)).thenReturn(0);
+        when(memberRepository.existsByIdAndOwner(1L, "esli")).thenReturn(true);
+
+        ResponseEntity<Void> response = controller.updateMember(1L, update, "\"2\"", principal);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void shouldPatchAMemberWithASingleOwnerScopedStatement() {
+        ObjectNode mergePatch = JsonNodeFactory.instance.objectNode().put("name", "Esli");
+        when(memberRepository.patchByIdAndOwner(eq(1L), eq("esli"), isNull(), any(MemberPatch.class))).thenReturn(1);
+
+        ResponseEntity<Void> response = controller.patchMember(1L, mergePatch, null, principal);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        verify(memberRepository).patchByIdAndOwner(eq(1L), eq("esli"), isNull(), argThat(patch ->
+                patch.columns().equals(Map.of("name", "Esli")) && patch.sons() == null
+        ));
+        verify(memberRepository, never()).findByIdAndOwner(anyLong(), anyString());
+        verify(memberRepository, never()).lockStateByIdAndOwner(anyLong(), anyString());
+    }
+
+    @Test
+    void shouldLockTheMemberAndMoveItsStatsWhenPatchingTheAge() {
+        ObjectNode mergePatch = JsonNodeFactory.instance.objectNode().put("age", 41);
+        when(memberRepository.lockStateByIdAndOwner(1L, "esli"))
+                .thenReturn(Optional.of(new MemberState(1L, 30, null, 2)));
+        when(memberRepository.patchByIdAndOwner(eq(1L), eq("esli"), isNull(), any(MemberPatch.class))).thenReturn(1);
+
+        ResponseEntity<Void> response = controller.patchMember(1L, mergePatch, null, principal);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        verify(memberOwnerStatsRepository).apply(eq("esli"), argThat(delta -> delta.getMembers() == 0
+                && delta.getAgeSum() == 11
+                && delta.histogram("esli").stream().map(MemberOwnerHistogram::getBucket).toList().equals(List.of(30, 40))));
+    }
+
+    @Test
+    void shouldNotPatchAMemberThatDoesNotExist() {
+        ObjectNode mergePatch = JsonNodeFactory.instance.objectNode().put("age", 31);
+        when(memberRepository.patchByIdAndOwner(eq(99999L), eq("esli"), isNull(), any(MemberPatch.class))).thenReturn(0);
+
+        ResponseEntity<Void> response = controller.patchMember(99999L, mergePatch, null, principal);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
     @Test
     void shouldNotUpdateAMemberThatDoesNotExist() {
         Member update = new Member(null, "unknow", 60, "esli", List.of("UpdatedSon"), null);
-        when(memberRepository.findByIdAndOwner(99999L, "esli")).thenReturn(null);
+        when(memberRepository.lockStateByIdAndOwner(99999L, "esli")).thenReturn(Optional.empty());
 
-        ResponseEntity<Void> response = controller.updateMember(99999L, update, principal);
+        ResponseEntity<Void> response = controller.updateMember(99999L, update, null, principal);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verify(memberRepository, never()).save(any());
     }
 
     @Test
     void shouldDeleteAnExistingMember() {
-        when(memberRepository.existsByIdAndOwner(1L, "esli")).thenReturn(true);
+        when(memberRepository.lockStatesByIdInAndOwner(List.of(1L), "esli"))
+                .thenReturn(List.of(new MemberState(1L, 30, null, 2)));
+        when(memberRepository.softDeleteActiveByIdInAndOwner(eq(List.of(1L)), eq("esli"), any(LocalDateTime.class)))
+                .thenReturn(1);
 
         ResponseEntity<Void> response = controller.deleteMember(1L, principal);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
-        verify(memberRepository).deleteById(1L);
+        verify(memberOwnerStatsRepository).apply(eq("esli"), argThat(delta -> delta.getMembers() == -1
+                && delta.getAgeSum() == -30 && delta.getSonsSum() == -2));
+        verify(memberRepository, never()).existsByIdAndOwner(anyLong(), anyString());
+        verify(memberRepository, never()).deleteById(anyLong());
     }
 
     @Test
     void shouldNotDeleteAMemberThatDoesNotExist() {
-        when(memberRepository.existsByIdAndOwner(99999L, "esli")).thenReturn(false);
-
         ResponseEntity<Void> response = controller.deleteMember(99999L, principal);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        verify(memberOwnerStatsRepository, never()).apply(anyString(), any());
         verify(memberRepository, never()).deleteById(anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldDeleteABatchOfMembersForTheOwner() {
+        when(memberRepository.lockStatesByIdInAndOwner(Set.of(1L, 2L, 3L), "esli")).thenReturn(List.of(
+                new MemberState(1L, 30, null, 2),
+                new MemberState(2L, 25, LocalDateTime.now().plusDays(1), 0)
+        ));
+        when(memberRepository.softDeleteActiveByIdInAndOwner(eq(List.of(1L)), eq("esli"), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(memberRepository.softDeleteScheduledByIdInAndOwner(eq(List.of(2L)), eq("esli"), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        ResponseEntity<BulkDeleteResponse> response = controller.deleteMembers(Set.of(1L, 2L, 3L), principal);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(new BulkDeleteResponse(3, 2));
+        verify(memberOwnerStatsRepository).apply(eq("esli"), argThat(delta -> delta.getMembers() == -1));
+    }
+}
@@ -0,0 +1,126 @@
+package com.eslirodrigues.tutorialjavabackend.api.controller;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql("/data.sql")
+@ActiveProfiles("test")
+class ReactiveMemberControllerTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${BASIC_DB_USERNAME}")
+    private String ownerUsername;
+
+    @Value("${BASIC_DB_PASSWORD}")
+    private String ownerPassword;
+
+    @Value("${BASIC_DB_GUESTNAME}")
+    private String guestUsername;
+
+    @Value("${BASIC_DB_GUESTPW}")
+    private String guestPassword;
+
+    @Test
+    void shouldReturnAMemberWithItsSons() {
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/reactive/members/1", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("W/\"0\"");
+
+        DocumentContext json = JsonPath.parse(response.getBody());
+        String name = json.read("$.name");
+        List<String> sons = json.read("$.sons");
+        assertThat(name).isEqualTo("esli");
+        assertThat(sons).containsExactlyInAnyOrder("Lucas", "Ana");
+    }
+
+    @Test
+    void shouldNotReturnDeletedOrOtherOwnersMembers() {
+        assertThat(restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/reactive/members/2", String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/reactive/members/3", String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void shouldListAPageOfMembersAsJson() {
+        jdbcTemplate.update("insert into member(name, age, owner) values ('carl', 20, 'esli')");
+        jdbcTemplate.update("insert into member(name, age, owner) values ('dora', 50, 'esli')");
+
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/reactive/members?page=0&size=2", String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        DocumentContext json = JsonPath.parse(response.getBody());
+        List<String> names = json.read("$[*].name");
+        List<String> sons = json.read("$[*].sons[*]");
+        assertThat(names).containsExactly("carl", "esli");
+        assertThat(sons).containsExactlyInAnyOrder("Lucas", "Ana");
+
+        response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .getForEntity("/reactive/members?page=1&size=2", String.class);
+        names = JsonPath.parse(response.getBody()).read("$[*].name");
+        assertThat(names).containsExactly("dora");
+    }
+
+    @Test
+    void shouldStreamMembersAsNdjson() {
+        for (int i = 0; i < 30; i++) {
+            jdbcTemplate.update("insert into member(name, age, owner) values (?, ?, 'esli')", "member-" + i, i);
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> response = restTemplate
+                .withBasicAuth(ownerUsername, ownerPassword)
+                .exchange("/reactive/members?size=100", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+
+        List<String> lines = response.getBody().lines().toList();
+        assertThat(lines).hasSize(31);
+        String first = JsonPath.parse(lines.getFirst()).read("$.name");
+        String last = JsonPath.parse(lines.getLast()).read("$.name");
+        assertThat(first).isEqualTo("member-0");
+        assertThat(last).isEqualTo("esli");
+    }
+
+    @Test
+    void shouldApplyTheSameSecurityRulesAsTheBlockingApi() {
+        assertThat(restTemplate
+                .withBasicAuth(guestUsername, guestPassword)
+                .getForEntity("/reactive/members/1", String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(restTemplate
+                .getForEntity("/reactive/members", String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
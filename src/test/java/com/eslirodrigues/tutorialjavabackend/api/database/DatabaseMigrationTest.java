@@ -0,0 +1,98 @@
+package com.eslirodrigues.tutorialjavabackend.api.database;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import com.eslirodrigues.tutorialjavabackend.api.database.repository.MemberRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a real PostgreSQL, which the H2 suite never does: the app
+ * starts with {@code ddl-auto=validate} on the migrated schema, and the stats backfills are
+ * checked against rows that existed before they ran. Skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class DatabaseMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void r2dbcProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.r2dbc.url", () -> "r2dbc:postgresql://%s:%d/%s".formatted(
+                postgres.getHost(), postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT), postgres.getDatabaseName()));
+        registry.add("app.r2dbc.username", postgres::getUsername);
+        registry.add("app.r2dbc.password", postgres::getPassword);
+    }
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    void shouldInsertThroughTheSequenceOnTheMigratedSchema() {
+        List<Member> saved = memberRepository.saveAll(List.of(
+                new Member(null, "carl", 20, "esli", List.of("Ana"), null),
+                new Member(null, "dora", 50, "esli", List.of(), null)));
+        jdbcTemplate.update("insert into member(name, age, owner, version) values ('erin', 33, 'esli', 0)");
+
+        assertThat(saved).extracting(Member::getId).doesNotContainNull();
+        Long erin = jdbcTemplate.queryForObject("select id from member where name = 'erin'", Long.class);
+        assertThat(erin).isNotIn(saved.stream().map(Member::getId).toList());
+    }
+
+    @Test
+    void shouldBackfillOwnerStatsFromExistingRows() {
+        migrate("backfill", "3");
+        jdbcTemplate.update("insert into backfill.member(name, age, owner) values ('carl', 21, 'esli'), ('dora', 35, 'esli')");
+        jdbcTemplate.update("insert into backfill.member(name, age, owner, deleted_date) values ('gone', 70, 'esli', now())");
+        jdbcTemplate.update("""
+                insert into backfill.member_sons(member_id, sons)
+                select id, 'Ana' from backfill.member where name = 'carl'
+                """);
+
+        migrate("backfill", null);
+
+        Map<String, Object> stats = jdbcTemplate.queryForMap(
+                "select members, age_sum, sons_sum from backfill.member_owner_stats where owner = 'esli'");
+        assertThat(stats).containsEntry("members", 2L).containsEntry("age_sum", 56L).containsEntry("sons_sum", 1L);
+        List<Integer> ageBuckets = jdbcTemplate.queryForList("""
+                select bucket from backfill.member_owner_histogram
+                where owner = 'esli' and dimension = 'AGE' order by bucket
+                """, Integer.class);
+        assertThat(ageBuckets).containsExactly(20, 30);
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from backfill.member", Long.class);
+        Long next = jdbcTemplate.queryForObject("select nextval('backfill.member_seq')", Long.class);
+        assertThat(next).isGreaterThan(maxId);
+    }
+
+    private void migrate(String schema, String target) {
+        FluentConfiguration configuration = Flyway.configure().dataSource(dataSource).schemas(schema);
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+    }
+}
@@ -0,0 +1,175 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.dto.MemberChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberChangeFeedTest {
+
+    private MemberChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new MemberChangeFeed(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(feed, "historySize", 3);
+        ReflectionTestUtils.setField(feed, "bufferSize", 2);
+        ReflectionTestUtils.setField(feed, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(feed, "overflowPolicy", MemberChangeFeed.OverflowPolicy.DISCONNECT);
+    }
+
+    @Test
+    void shouldPushChangesOnlyToSubscribersOfTheSameOwner() throws InterruptedException {
+        RecordingEmitter esli = new RecordingEmitter();
+        RecordingEmitter bill = new RecordingEmitter();
+        feed.subscribe("esli", null, esli);
+        feed.subscribe("bill", null, bill);
+
+        feed.onMemberChanged(new MemberChanged("esli", MemberChange.Type.CREATED, List.of(4L)));
+
+        assertThat(esli.next()).isEqualTo(":subscribed");
+        assertThat(esli.next()).startsWith("id:" + feed.currentSequence() + "\nevent:created\ndata:")
+                .contains("\"ids\":[4]");
+        assertThat(bill.next()).isEqualTo(":subscribed");
+        assertThat(bill.events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void shouldReplayChangesAfterTheResumeToken() throws InterruptedException {
+        feed.onMemberChanged(new MemberChanged("esli", MemberChange.Type.CREATED, List.of(4L)));
+        long token = feed.currentSequence();
+        feed.onMemberChanged(new MemberChanged("esli", MemberChange.Type.UPDATED, List.of(4L)));
+        feed.onMemberChanged(new MemberChanged("esli", MemberChange.Type.DELETED, List.of(4L)));
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        feed.subscribe("esli", token, emitter);
+
+        assertThat(emitter.next()).isEqualTo(":subscribed");
+        assertThat(emitter.next()).contains("event:updated");
+        assertThat(emitter.next()).contains("event:deleted");
+        assertThat(emitter.events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void shouldResetWhenTheResumeTokenFellOutOfTheHistory() throws InterruptedException {
+        feed.onMemberChanged(new MemberChanged("esli", MemberChange.Type.CREATED, List.of(4L)));
+        long token = feed.currentSequence();
+        for (long id = 5; id < 9; id++) {
+            feed.onMemberChanged(new MemberChanged("esli", MemberChange.Type.CREATED, List.of(id)));
+        }
+
+        RecordingEmitter stale = new RecordingEmitter();
+        feed.subscribe("esli", token, stale);
+        RecordingEmitter beforeRestart = new RecordingEmitter();
+        feed.subscribe("esli", 1L, beforeRestart);
+
+        assertThat(stale.next()).isEqualTo(":subscribed");
+        assertThat(stale.next()).startsWith("id:" + feed.currentSequence() + "\nevent:reset");
+        assertThat(stale.events.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(beforeRestart.next()).isEqualTo(":subscribed");
+        assertThat(beforeRestart.next()).contains("event:reset");
+    }
+
+    @Test
+    void shouldDisconnectASubscriberWhoseBufferOverflows() throws InterruptedException {
+        BlockingEmitter slow = new BlockingEmitter();
+        feed.subscribe("esli", null, slow);
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (long id = 4; id < 9; id++) {
+            feed.onMemberChanged(new MemberChanged("esli", MemberChange.Type.CREATED, List.of(id)));
+        }
+
+        assertThat(slow.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        RecordingEmitter resumed = new RecordingEmitter();
+        feed.subscribe("esli", feed.currentSequence() - 2, resumed);
+        assertThat(resumed.next()).isEqualTo(":subscribed");
+        assertThat(resumed.next()).contains("\"ids\":[7]");
+        assertThat(resumed.next()).contains("\"ids\":[8]");
+    }
+
+    @Test
+    void shouldReplaceTheBacklogWithAResetWhenDropping() throws InterruptedException {
+        ReflectionTestUtils.setField(feed, "overflowPolicy", MemberChangeFeed.OverflowPolicy.DROP);
+        BlockingEmitter slow = new BlockingEmitter();
+        feed.subscribe("esli", null, slow);
+        assertThat(slow.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (long id = 4; id < 9; id++) {
+            feed.onMemberChanged(new MemberChanged("esli", MemberChange.Type.CREATED, List.of(id)));
+        }
+        slow.release.countDown();
+
+        assertThat(slow.next()).isEqualTo(":subscribed");
+        List<String> delivered = List.of(slow.next(), slow.next());
+        assertThat(delivered).anyMatch(event -> event.contains("event:reset"));
+        assertThat(slow.completed.getCount()).isEqualTo(1);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            events.add(render(builder));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("next event").isNotNull();
+            return event;
+        }
+
+        private static String render(SseEventBuilder builder) {
+            return builder.build().stream()
+                    .map(part -> part.getData() instanceof String text ? text : toJson(part.getData()))
+                    .collect(Collectors.joining())
+                    .strip();
+        }
+
+        private static String toJson(Object data) {
+            try {
+                return Jackson2ObjectMapperBuilder.json().build().writeValueAsString(data);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static class BlockingEmitter extends RecordingEmitter {
+
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            super.send(builder);
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import com.eslirodrigues.tutorialjavabackend.api.database.model.Member;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.members.ingest.enabled=true",
+        "app.members.ingest.linger=200ms"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql("/data.sql")
+@ActiveProfiles("test")
+class MemberIngestQueueTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MemberIngestQueue memberIngestQueue;
+
+    @Value("${BASIC_DB_USERNAME}")
+    private String ownerUsername;
+
+    @Value("${BASIC_DB_PASSWORD}")
+    private String ownerPassword;
+
+    @Test
+    void shouldGroupConcurrentCreatesIntoFewCommits() {
+        List<CompletableFuture<ResponseEntity<Void>>> responses = IntStream.range(0, 20)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> restTemplate
+                        .withBasicAuth(ownerUsername, ownerPassword)
+                        .postForEntity("/members", new Member(null, "member-" + i, 20 + i, "esli", List.of("son-" + i), null), Void.class)))
+                .toList();
+
+        List<ResponseEntity<Void>> created = responses.stream().map(CompletableFuture::join).toList();
+
+        assertThat(created).allSatisfy(response -> {
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(response.getHeaders().getLocation()).isNotNull();
+        });
+        assertThat(created).extracting(response -> response.getHeaders().getLocation()).doesNotHaveDuplicates();
+        Integer sons = jdbcTemplate.queryForObject(
+                "select count(*) from member_sons s join member m on m.id = s.member_id where m.name like 'member-%'",
+                Integer.class);
+        assertThat(sons).isEqualTo(20);
+        Long members = jdbcTemplate.queryForObject("select members from member_owner_stats where owner = 'esli'", Long.class);
+        assertThat(members).isEqualTo(21);
+        DistributionSummary batches = meterRegistry.get("member.ingest.batch.size").summary();
+        assertThat(batches.totalAmount()).isEqualTo(20);
+        assertThat(batches.count()).isLessThan(20);
+    }
+
+    @Test
+    void shouldFailOnlyTheRequestWhoseRowIsRejected() {
+        CompletableFuture<Member> valid = memberIngestQueue.submit(new Member(null, "carl", 20, "esli", List.of(), null));
+        CompletableFuture<Member> invalid = memberIngestQueue.submit(new Member(null, "x".repeat(300), 20, "esli", List.of(), null));
+
+        assertThat(valid.join().getId()).isNotNull();
+        assertThat(invalid).failsWithin(Duration.ofSeconds(5));
+        Integer carl = jdbcTemplate.queryForObject("select count(*) from member where name = 'carl'", Integer.class);
+        assertThat(carl).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectSubmissionsOnceStopped() throws InterruptedException {
+        memberIngestQueue.destroy();
+
+        CompletableFuture<Member> late = memberIngestQueue.submit(new Member(null, "late", 20, "esli", List.of(), null));
+
+        assertThat(late).isCompletedExceptionally();
+    }
+}
@@ -0,0 +1,54 @@
+package com.eslirodrigues.tutorialjavabackend.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.members.purge.chunk-size=1",
+        "app.members.purge.pause-between-chunks=0ms"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql("/data.sql")
+@ActiveProfiles("test")
+class MemberPurgeJobTest {
+
+    @Autowired
+    MemberPurgeJob memberPurgeJob;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldPurgeExpiredMembersAndTheirSonsInChunks() {
+        jdbcTemplate.update("update member set deleted_date = ? where id = 1", LocalDateTime.now().minusYears(1));
+        jdbcTemplate.update("update member set deleted_date = ? where id = 3", LocalDateTime.now().minusMinutes(1));
+
+        long purged = memberPurgeJob.purge(LocalDateTime.now().minusDays(30));
+
+        assertThat(purged).isEqualTo(2);
+        List<Long> remainingIds = jdbcTemplate.queryForList("select id from member", Long.class);
+        assertThat(remainingIds).containsExactly(3L);
+        Integer orphanedSons = jdbcTemplate.queryForObject(
+                "select count(*) from member_sons where member_id in (1, 2)", Integer.class);
+        assertThat(orphanedSons).isZero();
+    }
+
+    @Test
+    void shouldNotPurgeLiveMembers() {
+        jdbcTemplate.update("update member set deleted_date = null");
+
+        assertThat(memberPurgeJob.purge(LocalDateTime.now())).isZero();
+        Integer members = jdbcTemplate.queryForObject("select count(*) from member", Integer.class);
+        assertThat(members).isEqualTo(3);
+    }
+}
@@ -0,0 +1,48 @@
+package com.eslirodrigues.tutorialjavabackend.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class LatencyStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private final AtomicInteger errors = new AtomicInteger();
+
+    synchronized void record(long nanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+    }
+
+    void recordError() {
+        errors.incrementAndGet();
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    int errors() {
+        return errors.get();
+    }
+
+    double throughput(long elapsedNanos) {
+        return count() / (elapsedNanos / 1e9);
+    }
+
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    double maxMillis() {
+        return percentileMillis(1.0);
+    }
+}
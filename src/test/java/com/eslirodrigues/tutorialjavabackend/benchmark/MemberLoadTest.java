@@ -0,0 +1,253 @@
+package com.eslirodrigues.tutorialjavabackend.benchmark;
+
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.UserDetailsManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Boots the application once against H2, seeds {@code loadtest.owners} owners with
+ * {@code loadtest.members-per-owner} members each and drives a weighted GET/POST/PUT/DELETE mix
+ * over HTTP with Basic auth. Fails when an endpoint misses its p99 budget or returns errors.
+ * Run with {@code mvn -Pload-test test}.
+ */
+@Tag("load-test")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"app.members.purge.enabled=false", "app.admission.enabled=false"}
+)
+@ActiveProfiles("test")
+class MemberLoadTest {
+
+    private final int owners = Integer.getInteger("loadtest.owners", 5);
+    private final int membersPerOwner = Integer.getInteger("loadtest.members-per-owner", 20);
+    private final int warmupRequests = Integer.getInteger("loadtest.warmup-requests", 100);
+    private final int requests = Integer.getInteger("loadtest.requests", 1000);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 8);
+    private final long seed = Long.getLong("loadtest.seed", 42L);
+    private final String mix = System.getProperty("loadtest.mix", "GET_BY_ID=50,GET_PAGE=20,POST=10,PUT=15,DELETE=5");
+    private final double defaultP99BudgetMillis = Double.parseDouble(System.getProperty("loadtest.p99-budget-ms", "2000"));
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    UserDetailsService userDetailsService;
+
+    @Autowired
+    PasswordEncoder passwordEncoder;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    private final Map<String, List<Long>> memberIdsByOwner = new LinkedHashMap<>();
+
+    enum Operation { GET_BY_ID, GET_PAGE, POST, PUT, DELETE }
+
+    @BeforeEach
+    void seed() {
+        UserDetailsManager users = (UserDetailsManager) userDetailsService;
+        for (int o = 0; o < owners; o++) {
+            String owner = "owner-" + o;
+            if (!users.userExists(owner)) {
+                users.createUser(User.withUsername(owner)
+                        .password(passwordEncoder.encode(password(owner)))
+                        .roles("OWNER")
+                        .build());
+            }
+            List<Object[]> rows = new ArrayList<>();
+            for (int m = 0; m < membersPerOwner; m++) {
+                rows.add(new Object[]{owner + "-member-" + m, 18 + m % 60, owner});
+            }
+            jdbcTemplate.batchUpdate("insert into member(id, name, age, owner, version) values (next value for member_seq, ?, ?, ?, 0)", rows);
+            memberIdsByOwner.put(owner, jdbcTemplate.queryForList(
+                    "select id from member where owner = ? order by id", Long.class, owner));
+        }
+    }
+
+    @Test
+    void shouldServeTheRequestMixWithinTheLatencyBudget() throws Exception {
+        NavigableMap<Integer, Operation> weights = parseMix(mix);
+        List<Worker> workers = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            workers.add(new Worker(w, new SplittableRandom(seed + w)));
+        }
+
+        drive(workers, weights, warmupRequests, newStats());
+        Map<Operation, LatencyStats> stats = newStats();
+        long start = System.nanoTime();
+        drive(workers, weights, requests, stats);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%n%d requests, %d workers, %d owners x %d members, %.1f req/s overall%n",
+                requests, concurrency, owners, membersPerOwner, requests / (elapsed / 1e9));
+        System.out.printf("%-10s %8s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        stats.forEach((operation, s) -> System.out.printf("%-10s %8d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                operation, s.count(), s.throughput(elapsed), s.percentileMillis(0.50), s.percentileMillis(0.95),
+                s.percentileMillis(0.99), s.maxMillis(), s.errors()));
+
+        SoftAssertions softly = new SoftAssertions();
+        stats.forEach((operation, s) -> {
+            double budget = Double.parseDouble(System.getProperty(
+                    "loadtest.p99-budget-ms." + operation, String.valueOf(defaultP99BudgetMillis)));
+            softly.assertThat(s.percentileMillis(0.99)).as("%s p99 ms", operation).isLessThanOrEqualTo(budget);
+            softly.assertThat(s.errors()).as("%s errors", operation).isZero();
+        });
+        softly.assertAll();
+    }
+
+    private void drive(List<Worker> workers, NavigableMap<Integer, Operation> weights, int total,
+                       Map<Operation, LatencyStats> stats) throws Exception {
+        int totalWeight = weights.lastKey();
+        AtomicInteger next = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Worker worker : workers) {
+                futures.add(executor.submit(() -> {
+                    while (next.getAndIncrement() < total) {
+                        Operation operation = weights.higherEntry(worker.random.nextInt(totalWeight)).getValue();
+                        worker.execute(operation, stats.get(operation));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private static Map<Operation, LatencyStats> newStats() {
+        Map<Operation, LatencyStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new LatencyStats());
+        }
+        return stats;
+    }
+
+    private final class Worker {
+
+        private final SplittableRandom random;
+        private final String owner;
+        private final List<Long> readableIds;
+        private final List<Long> updatableIds = new ArrayList<>();
+        private final Deque<Long> createdIds = new ArrayDeque<>();
+
+        Worker(int index, SplittableRandom random) {
+            this.random = random;
+            List<String> ownerNames = new ArrayList<>(memberIdsByOwner.keySet());
+            this.owner = ownerNames.get(index % ownerNames.size());
+            this.readableIds = memberIdsByOwner.get(owner);
+            int workersPerOwner = (concurrency + ownerNames.size() - 1) / ownerNames.size();
+            for (int i = index / ownerNames.size(); i < readableIds.size(); i += workersPerOwner) {
+                updatableIds.add(readableIds.get(i));
+            }
+        }
+
+        void execute(Operation operation, LatencyStats stats) {
+            HttpRequest request = switch (operation) {
+                case GET_BY_ID -> get("/members/" + pick(readableIds));
+                case GET_PAGE -> get("/members?page=0&size=20");
+                case POST -> post();
+                case PUT -> updatableIds.isEmpty() ? get("/members/" + pick(readableIds)) : put(pick(updatableIds));
+                case DELETE -> createdIds.isEmpty() ? post() : delete(createdIds.poll());
+            };
+            long sent = System.nanoTime();
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                stats.record(System.nanoTime() - sent);
+                if (response.statusCode() >= 400) {
+                    stats.recordError();
+                } else if (request.method().equals("POST")) {
+                    response.headers().firstValue("Location")
+                            .map(location -> Long.parseLong(location.substring(location.lastIndexOf('/') + 1)))
+                            .ifPresent(createdIds::add);
+                }
+            } catch (Exception e) {
+                stats.record(System.nanoTime() - sent);
+                stats.recordError();
+            }
+        }
+
+        private long pick(List<Long> ids) {
+            return ids.get(random.nextInt(ids.size()));
+        }
+
+        private HttpRequest get(String path) {
+            return request(path).GET().build();
+        }
+
+        private HttpRequest post() {
+            return request("/members")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body("created")))
+                    .build();
+        }
+
+        private HttpRequest put(long id) {
+            return request("/members/" + id)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body("updated")))
+                    .build();
+        }
+
+        private HttpRequest delete(long id) {
+            return request("/members/" + id).DELETE().build();
+        }
+
+        private String body(String prefix) {
+            return "{\"name\":\"" + prefix + "-" + random.nextInt(1_000_000) + "\",\"age\":" + (18 + random.nextInt(60))
+                    + ",\"sons\":[\"son-" + random.nextInt(100) + "\"]}";
+        }
+
+        private HttpRequest.Builder request(String path) {
+            String credentials = Base64.getEncoder()
+                    .encodeToString((owner + ":" + password(owner)).getBytes(StandardCharsets.UTF_8));
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("Authorization", "Basic " + credentials);
+        }
+    }
+
+    private static String password(String owner) {
+        return owner + "-secret";
+    }
+
+    private static NavigableMap<Integer, Operation> parseMix(String mix) {
+        NavigableMap<Integer, Operation> weights = new TreeMap<>();
+        int total = 0;
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                total += weight;
+                weights.put(total, Operation.valueOf(parts[0].trim()));
+            }
+        }
+        return weights;
+    }
+}
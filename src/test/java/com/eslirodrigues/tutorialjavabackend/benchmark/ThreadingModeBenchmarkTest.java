@@ -0,0 +1,157 @@
+package com.eslirodrigues.tutorialjavabackend.benchmark;
+
+import com.eslirodrigues.tutorialjavabackend.TutorialJavaBackendApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application once per threading mode and drives the same fixed workload against
+ * {@code MemberController}. Run with {@code mvn -Pbenchmark test}; sizes can be tuned with
+ * {@code -Dbenchmark.requests}, {@code -Dbenchmark.concurrency} and {@code -Dbenchmark.tomcat-threads}.
+ */
+@Tag("benchmark")
+class ThreadingModeBenchmarkTest {
+
+    private static final int SEED_MEMBERS = 50;
+    private static final int WARMUP_REQUESTS = 100;
+
+    private final int requests = Integer.getInteger("benchmark.requests", 400);
+    private final int concurrency = Integer.getInteger("benchmark.concurrency", 64);
+    private final int tomcatThreads = Integer.getInteger("benchmark.tomcat-threads", 16);
+
+    private final String username = System.getenv("BASIC_DB_USERNAME");
+    private final String password = System.getenv("BASIC_DB_PASSWORD");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Map<String, Map<String, Result>> results = new LinkedHashMap<>();
+        results.put("platform", run("test"));
+        results.put("virtual", run("test", "virtual-threads"));
+
+        System.out.printf("%n%-10s %-18s %10s %10s %10s %10s%n", "mode", "endpoint", "req/s", "p50 ms", "p99 ms", "errors");
+        results.forEach((mode, byEndpoint) -> byEndpoint.forEach((endpoint, result) ->
+                System.out.printf("%-10s %-18s %10.1f %10.2f %10.2f %10d%n", mode, endpoint,
+                        result.throughput(), result.stats().percentileMillis(0.50),
+                        result.stats().percentileMillis(0.99), result.stats().errors())));
+
+        results.values().forEach(byEndpoint -> byEndpoint.values()
+                .forEach(result -> assertThat(result.stats().errors()).isZero()));
+    }
+
+    private Map<String, Result> run(String... profiles) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TutorialJavaBackendApplication.class)
+                .profiles(profiles)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + tomcatThreads,
+                        "app.members.purge.enabled=false",
+                        "logging.level.com.eslirodrigues.tutorialjavabackend=WARN")
+                // A single principal drives the whole workload; as an argument this outranks application.properties.
+                .run("--app.admission.enabled=false")) {
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < SEED_MEMBERS; i++) {
+                HttpResponse<String> created = send(createMember(baseUrl, i));
+                String location = created.headers().firstValue("Location").orElseThrow();
+                ids.add(Long.parseLong(location.substring(location.lastIndexOf('/') + 1)));
+            }
+
+            Map<String, IntFunction<HttpRequest>> endpoints = new LinkedHashMap<>();
+            endpoints.put("GET /members/{id}", i -> get(baseUrl + "/members/" + ids.get(i % ids.size())));
+            endpoints.put("GET /members", i -> get(baseUrl + "/members?page=0&size=20"));
+            endpoints.put("POST /members", i -> createMember(baseUrl, SEED_MEMBERS + i));
+
+            Map<String, Result> results = new LinkedHashMap<>();
+            for (Map.Entry<String, IntFunction<HttpRequest>> endpoint : endpoints.entrySet()) {
+                drive(endpoint.getValue(), WARMUP_REQUESTS);
+                results.put(endpoint.getKey(), drive(endpoint.getValue(), requests));
+            }
+            return results;
+        }
+    }
+
+    private Result drive(IntFunction<HttpRequest> request, int total) throws Exception {
+        LatencyStats stats = new LatencyStats();
+        AtomicInteger next = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int worker = 0; worker < concurrency; worker++) {
+                futures.add(workers.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < total; i = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        try {
+                            if (send(request.apply(i)).statusCode() >= 400) {
+                                stats.recordError();
+                            }
+                        } catch (Exception e) {
+                            stats.recordError();
+                        }
+                        stats.record(System.nanoTime() - sent);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return new Result(stats, System.nanoTime() - start);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String url) {
+        return authorized(HttpRequest.newBuilder(URI.create(url))).GET().build();
+    }
+
+    private HttpRequest createMember(String baseUrl, int i) {
+        String body = "{\"name\":\"member-" + i + "\",\"age\":" + (18 + i % 60) + ",\"sons\":[\"son-" + i + "\"]}";
+        return authorized(HttpRequest.newBuilder(URI.create(baseUrl + "/members")))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(HttpRequest.Builder builder) {
+        String credentials = Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        return builder.header("Authorization", "Basic " + credentials);
+    }
+
+    private record Result(LatencyStats stats, long elapsedNanos) {
+
+        double throughput() {
+            return stats.throughput(elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.eslirodrigues.tutorialjavabackend.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    @Test
+    void shouldReleaseThePermitWhenTheConnectionIsClosed() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+
+        Connection limited = dataSource.getConnection();
+        assertThat(dataSource.getAvailablePermits()).isZero();
+
+        limited.close();
+        limited.close();
+
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void shouldTimeOutWhenAllPermitsAreInUse() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+
+        dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(target, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldReleaseThePermitWhenTheTargetFails() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+}
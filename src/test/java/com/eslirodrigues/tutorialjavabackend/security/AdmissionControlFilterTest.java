@@ -0,0 +1,183 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAdmitABurstAndThenRefillAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = 0;
+
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isPositive();
+    }
+
+    @Test
+    void shouldShrinkTheLimitWhenStatementsAreSlowAndGrowItBackUnderLoad() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 12, Duration.ofMillis(50));
+
+        assertThat(limit.tryAcquire()).isTrue();
+        limit.release(200);
+        assertThat(limit.limit()).isEqualTo(9);
+
+        acquire(limit);
+        limit.release(-1);
+        assertThat(limit.limit()).isEqualTo(9);
+
+        for (int i = 0; i < 6; i++) {
+            acquire(limit);
+        }
+        limit.release(5);
+        assertThat(limit.limit()).isEqualTo(10);
+        assertThat(limit.inFlight()).isEqualTo(5);
+
+        while (limit.inFlight() < limit.limit()) {
+            acquire(limit);
+        }
+        assertThat(limit.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void shouldRejectAPrincipalOverItsRateWithRetryAfter() throws Exception {
+        AdmissionControlFilter filter = filter(new AdmissionControlFilter.Limits(0.5, 1), 10);
+        authenticate("visitor", "ROLE_GUEST");
+
+        assertThat(execute(filter, "/members").getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = execute(filter, "/members");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(meterRegistry.get("admission.rejected").tags("reason", "rate", "role", "GUEST")
+                .counter().count()).isEqualTo(1);
+
+        authenticate("esli", "ROLE_OWNER");
+        assertThat(execute(filter, "/members").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldRejectWhenTheGlobalConcurrencyLimitIsReached() throws Exception {
+        AdmissionControlFilter filter = filter(new AdmissionControlFilter.Limits(100, 100), 1);
+        authenticate("esli", "ROLE_OWNER");
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain reentrant = (request, response) -> nested[0] = execute(filter, "/members/1");
+
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(request("/members"), outer, reentrant);
+
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested[0].getStatus()).isEqualTo(429);
+        assertThat(nested[0].getHeader("Retry-After")).isEqualTo("1");
+        assertThat(meterRegistry.get("admission.concurrency.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldHoldTheConcurrencySlotUntilAStreamingResponseCompletes() throws Exception {
+        AdmissionControlFilter filter = filter(new AdmissionControlFilter.Limits(100, 100), 1);
+        authenticate("esli", "ROLE_OWNER");
+        MockHttpServletRequest request = request("/members/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(meterRegistry.get("admission.concurrency.in.flight").gauge().value()).isEqualTo(1);
+        assertThat(execute(filter, "/members").getStatus()).isEqualTo(429);
+
+        request.getAsyncContext().complete();
+        assertThat(meterRegistry.get("admission.concurrency.in.flight").gauge().value()).isZero();
+        assertThat(execute(filter, "/members").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldNotHoldTheConcurrencySlotForAnEventStream() throws Exception {
+        AdmissionControlFilter filter = filter(new AdmissionControlFilter.Limits(100, 100), 1);
+        authenticate("esli", "ROLE_OWNER");
+        MockHttpServletRequest request = request("/members/changes");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            res.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            req.startAsync();
+        });
+
+        assertThat(meterRegistry.get("admission.concurrency.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void shouldLeaveActuatorAndAnonymousRequestsAlone() throws Exception {
+        AdmissionControlFilter filter = filter(new AdmissionControlFilter.Limits(0.1, 1), 1);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(execute(filter, "/members").getStatus()).isEqualTo(200);
+        }
+        authenticate("visitor", "ROLE_GUEST");
+        for (int i = 0; i < 3; i++) {
+            assertThat(execute(filter, "/actuator/health").getStatus()).isEqualTo(200);
+        }
+        assertThat(meterRegistry.get("admission.buckets").gauge().value()).isZero();
+    }
+
+    private static void acquire(AdaptiveConcurrencyLimit limit) {
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    private AdmissionControlFilter filter(AdmissionControlFilter.Limits limits, int concurrency) {
+        return new AdmissionControlFilter(limits, limits, concurrency, 1, concurrency,
+                Duration.ofMillis(50), Duration.ofMinutes(10), meterRegistry);
+    }
+
+    private static void authenticate(String name, String authority) {
+        TestingAuthenticationToken authentication = new TestingAuthenticationToken(name, null, authority);
+        authentication.setAuthenticated(true);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRequestURI(uri);
+        return request;
+    }
+
+    private static MockHttpServletResponse execute(AdmissionControlFilter filter, String uri) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request(uri), response, new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,79 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachingAuthenticationProviderTest {
+
+    private PasswordEncoder passwordEncoder;
+    private ObservableInMemoryUserDetailsManager users;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = spy(new BCryptPasswordEncoder(4));
+        users = new ObservableInMemoryUserDetailsManager(User.withUsername("esli")
+                .password(passwordEncoder.encode("secret"))
+                .roles("OWNER")
+                .build());
+        DaoAuthenticationProvider verifier = new DaoAuthenticationProvider(passwordEncoder);
+        verifier.setUserDetailsService(users);
+        provider = new CachingAuthenticationProvider(verifier, Duration.ofMinutes(5), 100);
+        users.onUserChanged(provider::evict);
+    }
+
+    @Test
+    void shouldVerifyRepeatedCredentialsOnlyOnce() {
+        Authentication first = provider.authenticate(token("esli", "secret"));
+        Authentication second = provider.authenticate(token("esli", "secret"));
+
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getName()).isEqualTo("esli");
+        assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        assertThat(second.getCredentials()).isNull();
+        verify(passwordEncoder, times(1)).matches(any(), any());
+        assertThat(provider.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheRejectedCredentials() {
+        assertThatThrownBy(() -> provider.authenticate(token("esli", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThatThrownBy(() -> provider.authenticate(token("esli", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+
+        assertThat(provider.estimatedSize()).isZero();
+    }
+
+    @Test
+    void shouldForgetCredentialsWhenTheUserChanges() {
+        provider.authenticate(token("esli", "secret"));
+
+        users.updateUser(User.withUsername("esli")
+                .password(passwordEncoder.encode("rotated"))
+                .roles("OWNER")
+                .build());
+
+        assertThatThrownBy(() -> provider.authenticate(token("esli", "secret")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThat(provider.authenticate(token("esli", "rotated")).isAuthenticated()).isTrue();
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
@@ -0,0 +1,66 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    private final JwtDecoder delegate = mock(JwtDecoder.class);
+    private final CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void shouldValidateARepeatedTokenOnlyOnce() {
+        Jwt jwt = jwt("token-a", NOW.plusSeconds(300));
+        when(delegate.decode("token-a")).thenReturn(jwt);
+
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+        assertThat(decoder.decode("token-a")).isSameAs(jwt);
+
+        verify(delegate, times(1)).decode("token-a");
+    }
+
+    @Test
+    void shouldKeepTokensApart() {
+        when(delegate.decode("token-a")).thenReturn(jwt("token-a", NOW.plusSeconds(300)));
+        when(delegate.decode("token-b")).thenReturn(jwt("token-b", NOW.plusSeconds(300)));
+
+        assertThat(decoder.decode("token-a").getTokenValue()).isEqualTo("token-a");
+        assertThat(decoder.decode("token-b").getTokenValue()).isEqualTo("token-b");
+    }
+
+    @Test
+    void shouldNotCacheRejectedOrExpiredTokens() {
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("invalid signature"));
+        when(delegate.decode("expired")).thenReturn(jwt("expired", NOW.minusSeconds(1)));
+
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+        assertThatThrownBy(() -> decoder.decode("bad")).isInstanceOf(BadJwtException.class);
+        decoder.decode("expired");
+        decoder.decode("expired");
+
+        verify(delegate, times(2)).decode("bad");
+        verify(delegate, times(2)).decode("expired");
+        assertThat(decoder.estimatedSize()).isZero();
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("esli")
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
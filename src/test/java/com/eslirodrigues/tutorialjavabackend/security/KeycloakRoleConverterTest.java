@@ -0,0 +1,54 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeycloakRoleConverterTest {
+
+    private final KeycloakRoleConverter converter = new KeycloakRoleConverter();
+
+    @Test
+    void shouldMapRealmRolesToAuthorities() {
+        Collection<GrantedAuthority> authorities = converter.convert(jwt("token-a", List.of("OWNER", "offline_access")));
+
+        assertThat(authorities).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_OWNER", "ROLE_offline_access");
+    }
+
+    @Test
+    void shouldReuseConvertedAuthoritiesForTheSameToken() {
+        Jwt jwt = jwt("token-a", List.of("OWNER"));
+
+        assertThat(converter.convert(jwt)).isSameAs(converter.convert(jwt));
+    }
+
+    @Test
+    void shouldShareAuthorityInstancesAcrossTokens() {
+        GrantedAuthority first = converter.convert(jwt("token-a", List.of("OWNER"))).iterator().next();
+        GrantedAuthority second = converter.convert(jwt("token-b", List.of("OWNER"))).iterator().next();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void shouldReturnNoAuthoritiesWithoutRealmAccess() {
+        Jwt jwt = Jwt.withTokenValue("token-c").header("alg", "RS256").subject("esli").build();
+
+        assertThat(converter.convert(jwt)).isEmpty();
+    }
+
+    private static Jwt jwt(String token, List<String> roles) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("esli")
+                .claim("realm_access", Map.of("roles", roles))
+                .build();
+    }
+}
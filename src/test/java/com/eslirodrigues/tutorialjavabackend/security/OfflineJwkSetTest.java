@@ -0,0 +1,92 @@
+package com.eslirodrigues.tutorialjavabackend.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Sql("/data.sql")
+@ActiveProfiles("test")
+class OfflineJwkSetTest {
+
+    @TempDir
+    static Path keys;
+
+    static RSAKey signingKey;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void jwkSetLocation(DynamicPropertyRegistry registry) throws JOSEException, IOException {
+        signingKey = new RSAKeyGenerator(2048).keyID("offline").generate();
+        Path jwks = keys.resolve("jwks.json");
+        Files.writeString(jwks, new JWKSet(signingKey.toPublicJWK()).toString());
+        registry.add("app.security.jwt.jwk-set-location", () -> jwks.toUri().toString());
+    }
+
+    @Test
+    void shouldAuthenticateABearerTokenAgainstALocalJwkSet() throws JOSEException {
+        String token = token(Map.of("roles", List.of("OWNER")));
+
+        ResponseEntity<String> first = get("/members/1", token);
+        ResponseEntity<String> second = get("/members/1", token);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void shouldRejectATokenWithoutTheOwnerRole() throws JOSEException {
+        ResponseEntity<String> response = get("/members/1", token(Map.of("roles", List.of("GUEST"))));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    private ResponseEntity<String> get(String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token);
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private static String token(Map<String, Object> realmAccess) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer("http://localhost:8080/realms/tutorial-java-backend")
+                .subject("0b6f2c1e-5a7d-4c11-9e5c-3f6a9d2b7e10")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(300)))
+                .claim("preferred_username", "esli")
+                .claim("realm_access", realmAccess)
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,23 @@
+package com.eslirodrigues.tutorialjavabackend.support;
+
+import com.eslirodrigues.tutorialjavabackend.config.SqlStatementListener;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    public static <T> T assertAtMost(SqlStatementListener listener, int maxStatements, Supplier<T> action) {
+        long before = listener.totalStatements();
+        T result = action.get();
+        long issued = listener.totalStatements() - before;
+        assertThat(issued)
+                .as("JDBC statements issued")
+                .isLessThanOrEqualTo(maxStatements);
+        return result;
+    }
+}
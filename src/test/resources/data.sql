@@ -1,7 +1,19 @@
-INSERT INTO member(name, age, owner, deleted_date) VALUES ('esli', 30, 'esli', NULL);
-INSERT INTO member(name, age, owner, deleted_date) VALUES ('alice', 25, 'esli', '2024-12-31 23:59:59');
-INSERT INTO member(name, age, owner, deleted_date) VALUES ('bob', 40, 'bill', NULL);
+ALTER TABLE member ALTER COLUMN id SET DEFAULT NEXT VALUE FOR member_seq;
+
+MERGE INTO member(id, name, age, owner, deleted_date) KEY (id) VALUES (1, 'esli', 30, 'esli', NULL);
+MERGE INTO member(id, name, age, owner, deleted_date) KEY (id) VALUES (2, 'alice', 25, 'esli', '2024-12-31 23:59:59');
+MERGE INTO member(id, name, age, owner, deleted_date) KEY (id) VALUES (3, 'bob', 40, 'bill', NULL);
+
+ALTER SEQUENCE member_seq RESTART WITH 4;
 
 INSERT INTO member_sons(member_id, sons) VALUES (1, 'Lucas');
 INSERT INTO member_sons(member_id, sons) VALUES (1, 'Ana');
-INSERT INTO member_sons(member_id, sons) VALUES (3, 'Eva');
\ No newline at end of file
+INSERT INTO member_sons(member_id, sons) VALUES (3, 'Eva');
+
+MERGE INTO member_owner_stats(owner, members, age_sum, sons_sum) KEY (owner) VALUES ('esli', 1, 30, 2);
+MERGE INTO member_owner_stats(owner, members, age_sum, sons_sum) KEY (owner) VALUES ('bill', 1, 40, 1);
+
+MERGE INTO member_owner_histogram(owner, dimension, bucket, members) KEY (owner, dimension, bucket) VALUES ('esli', 'AGE', 30, 1);
+MERGE INTO member_owner_histogram(owner, dimension, bucket, members) KEY (owner, dimension, bucket) VALUES ('esli', 'SONS', 2, 1);
+MERGE INTO member_owner_histogram(owner, dimension, bucket, members) KEY (owner, dimension, bucket) VALUES ('bill', 'AGE', 40, 1);
+MERGE INTO member_owner_histogram(owner, dimension, bucket, members) KEY (owner, dimension, bucket) VALUES ('bill', 'SONS', 1, 1);
\ No newline at end of file
@@ -1,13 +1,31 @@
+CREATE SEQUENCE IF NOT EXISTS member_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS member (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT NEXT VALUE FOR member_seq PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     age INTEGER NOT NULL,
     owner VARCHAR(255) NOT NULL,
-    deleted_date TIMESTAMP
+    deleted_date TIMESTAMP,
+    version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS member_sons (
     member_id BIGINT NOT NULL,
     sons VARCHAR(255),
     CONSTRAINT fk_member FOREIGN KEY (member_id) REFERENCES member(id)
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS member_owner_stats (
+    owner VARCHAR(255) PRIMARY KEY,
+    members BIGINT NOT NULL,
+    age_sum BIGINT DEFAULT 0 NOT NULL,
+    sons_sum BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS member_owner_histogram (
+    owner VARCHAR(255) NOT NULL,
+    dimension VARCHAR(16) NOT NULL,
+    bucket INTEGER NOT NULL,
+    members BIGINT NOT NULL,
+    PRIMARY KEY (owner, dimension, bucket)
+);